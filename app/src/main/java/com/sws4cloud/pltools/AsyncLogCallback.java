@@ -0,0 +1,131 @@
+package com.sws4cloud.pltools;
+
+import com.sws4cloud.pltools.ExcelDataExtractor.LogCallback;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * 缓冲的异步日志回调。
+ * <p>
+ * 调用方线程只把日志放入有界队列，由单独的后台线程按批取出并按提交顺序转发给目标回调，
+ * 工作线程不会因为界面或控制台输出变慢而阻塞（队列满时才等待）。
+ * {@link #close()} 会先把队列中的日志全部转发完再返回。
+ */
+final class AsyncLogCallback implements LogCallback, AutoCloseable {
+
+    // 队列容量
+    private static final int QUEUE_CAPACITY = 16384;
+
+    // 每批最多转发的日志条数
+    private static final int BATCH_SIZE = 512;
+
+    private final LogCallback target;
+    private final BlockingQueue<Entry> queue = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+    private final Thread worker;
+    private volatile boolean closed;
+
+    private record Entry(LogLevel level, String message, CountDownLatch marker) {
+    }
+
+    AsyncLogCallback(LogCallback target) {
+        this.target = target;
+        this.worker = new Thread(this::drain, "pl-log");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    @Override
+    public void logMessage(String message) {
+        log(LogLevel.INFO, message);
+    }
+
+    @Override
+    public void logError(String message) {
+        log(LogLevel.ERROR, message);
+    }
+
+    @Override
+    public void log(LogLevel level, String message) {
+        if (closed) {
+            // 关闭之后的日志直接同步转发
+            target.log(level, message);
+            return;
+        }
+        enqueue(new Entry(level, message, null));
+    }
+
+    /**
+     * 等待当前已提交的日志全部转发完成
+     */
+    void flush() {
+        if (closed) {
+            return;
+        }
+        CountDownLatch marker = new CountDownLatch(1);
+        enqueue(new Entry(null, null, marker));
+        try {
+            marker.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        flush();
+        closed = true;
+        worker.interrupt();
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // 转发关闭过程中仍然进入队列的日志
+        Entry entry;
+        while ((entry = queue.poll()) != null) {
+            deliver(entry);
+        }
+    }
+
+    private void enqueue(Entry entry) {
+        try {
+            queue.put(entry);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            deliver(entry);
+        }
+    }
+
+    private void drain() {
+        List<Entry> batch = new ArrayList<>(BATCH_SIZE);
+        while (!closed) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            queue.drainTo(batch, BATCH_SIZE - 1);
+            for (Entry entry : batch) {
+                deliver(entry);
+            }
+            batch.clear();
+        }
+    }
+
+    private void deliver(Entry entry) {
+        if (entry.marker() != null) {
+            entry.marker().countDown();
+            return;
+        }
+        try {
+            target.log(entry.level(), entry.message());
+        } catch (RuntimeException e) {
+            // 目标回调出错不能影响日志线程
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.sws4cloud.pltools;
+
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DataFormat;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.FontScheme;
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.VerticalAlignment;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFFont;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 单个工作簿内的单元格样式注册表。
+ * <p>
+ * 相同规格（{@link StyleSpec}）的样式和字体在一个工作簿中只创建一次；
+ * 如果模板中已经存在完全一致的样式或字体，则直接复用，避免反复使用同一模板时输出文件的样式表不断膨胀。
+ */
+final class CellStyleRegistry {
+
+    /**
+     * 样式规格：居中对齐、细边框，字体只设置字号，数字格式为 null 时使用常规格式
+     */
+    record StyleSpec(HorizontalAlignment alignment, VerticalAlignment verticalAlignment,
+                     BorderStyle border, short fontHeightInPoints, String dataFormat) {
+
+        static StyleSpec centered(String dataFormat) {
+            return new StyleSpec(HorizontalAlignment.CENTER, VerticalAlignment.CENTER,
+                    BorderStyle.THIN, (short) 10, dataFormat);
+        }
+    }
+
+    // 居中样式，用于普通文本列
+    static final StyleSpec CENTERED = StyleSpec.centered(null);
+    // 文本样式（避免数字显示为.00）
+    static final StyleSpec TEXT = StyleSpec.centered("@");
+    // 数字样式（两位小数）
+    static final StyleSpec NUMBER = StyleSpec.centered("0.00");
+    // 整数样式（不要.00后缀）
+    static final StyleSpec INTEGER = StyleSpec.centered("0");
+    // 四位小数样式
+    static final StyleSpec FOUR_DECIMAL = StyleSpec.centered("0.0000");
+
+    private static final String GENERAL_FORMAT = "General";
+
+    private final XSSFWorkbook workbook;
+    private final DataFormat dataFormat;
+    private final Map<StyleSpec, CellStyle> styles = new HashMap<>();
+    private final Map<Short, Font> fonts = new HashMap<>();
+
+    CellStyleRegistry(XSSFWorkbook workbook) {
+        this.workbook = workbook;
+        this.dataFormat = workbook.createDataFormat();
+    }
+
+    /**
+     * 获取指定规格的样式，不存在时先在工作簿中查找相同样式，找不到才创建
+     */
+    CellStyle get(StyleSpec spec) {
+        return styles.computeIfAbsent(spec, this::findOrCreateStyle);
+    }
+
+    private CellStyle findOrCreateStyle(StyleSpec spec) {
+        Font font = getFont(spec.fontHeightInPoints());
+        String format = spec.dataFormat() != null ? spec.dataFormat() : GENERAL_FORMAT;
+
+        for (int i = 0; i < workbook.getNumCellStyles(); i++) {
+            XSSFCellStyle existing = workbook.getCellStyleAt(i);
+            if (matches(existing, spec, font, format)) {
+                return existing;
+            }
+        }
+
+        CellStyle style = workbook.createCellStyle();
+
+        // 设置水平和垂直居中
+        style.setAlignment(spec.alignment());
+        style.setVerticalAlignment(spec.verticalAlignment());
+
+        // 设置边框
+        style.setBorderTop(spec.border());
+        style.setBorderBottom(spec.border());
+        style.setBorderLeft(spec.border());
+        style.setBorderRight(spec.border());
+
+        // 设置字体
+        style.setFont(font);
+
+        if (spec.dataFormat() != null) {
+            style.setDataFormat(dataFormat.getFormat(spec.dataFormat()));
+        }
+        return style;
+    }
+
+    private Font getFont(short heightInPoints) {
+        return fonts.computeIfAbsent(heightInPoints, height -> {
+            for (int i = 0; i < workbook.getNumberOfFonts(); i++) {
+                XSSFFont existing = workbook.getFontAt(i);
+                if (isPlainFont(existing, height)) {
+                    return existing;
+                }
+            }
+            Font font = workbook.createFont();
+            font.setFontHeightInPoints(height);
+            return font;
+        });
+    }
+
+    /**
+     * 与 createFont() 后只设置字号得到的字体一致
+     */
+    private static boolean isPlainFont(XSSFFont font, short heightInPoints) {
+        return font.getFontHeightInPoints() == heightInPoints
+                && XSSFFont.DEFAULT_FONT_NAME.equals(font.getFontName())
+                && !font.getBold()
+                && !font.getItalic()
+                && !font.getStrikeout()
+                && font.getUnderline() == Font.U_NONE
+                && font.getTypeOffset() == Font.SS_NONE
+                && font.getXSSFColor() == null
+                && font.getFamily() == 0
+                && font.getScheme() == FontScheme.NONE;
+    }
+
+    /**
+     * 与 findOrCreateStyle 新建的样式一致
+     */
+    private static boolean matches(XSSFCellStyle style, StyleSpec spec, Font font, String format) {
+        return style.getFontIndex() == font.getIndex()
+                && style.getAlignment() == spec.alignment()
+                && style.getVerticalAlignment() == spec.verticalAlignment()
+                && style.getBorderTop() == spec.border()
+                && style.getBorderBottom() == spec.border()
+                && style.getBorderLeft() == spec.border()
+                && style.getBorderRight() == spec.border()
+                && style.getTopBorderXSSFColor() == null
+                && style.getBottomBorderXSSFColor() == null
+                && style.getLeftBorderXSSFColor() == null
+                && style.getRightBorderXSSFColor() == null
+                && style.getFillPattern() == FillPatternType.NO_FILL
+                && !style.getWrapText()
+                && !style.getShrinkToFit()
+                && style.getIndention() == 0
+                && style.getRotation() == 0
+                && style.getLocked()
+                && !style.getHidden()
+                && format.equals(style.getDataFormatString());
+    }
+}
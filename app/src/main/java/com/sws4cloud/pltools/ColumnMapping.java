@@ -0,0 +1,336 @@
+package com.sws4cloud.pltools;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.util.CellReference;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 源文件和模板的列映射。
+ * <p>
+ * 默认使用原有的固定布局（第14行为标题行，SRC_COL_* 和 TGT_COL_*），也可以从 properties 文件（UTF-8）加载：
+ * <pre>
+ * # 标题行的 Excel 行号，数据从下一行开始
+ * header.row=14
+ * # 按标题行自动识别源文件的列（默认 true）
+ * header.autoDetect=true
+ * # 标题名的别名，多个用 | 分隔（追加到内置标题名）
+ * header.QUANTITY=CAJAS|QTY
+ * # 标题行无法识别时使用的源文件列
+ * source.ID_PALLET=Q
+ * # 写入模板的列
+ * target.PALLET_NO=B
+ * </pre>
+ * 字段名见 {@link SourceField} 和 {@link TargetField}。映射文件只编译一次并按路径缓存，文件修改后重新加载。
+ * <p>
+ * 每个源文件读取标题行后，按标题文本的指纹查找已识别的布局：同一供应商的文件只在第一次出现时识别，
+ * 之后只需拼接一次标题文本。标题行中能找到所有字段时使用识别出的列，否则使用配置的列
+ * （使用映射文件且只找到一部分字段时给出警告）。
+ */
+final class ColumnMapping {
+
+    // 配置项
+    static final String HEADER_ROW_KEY = "header.row";
+    static final String AUTO_DETECT_KEY = "header.autoDetect";
+    private static final String HEADER_PREFIX = "header.";
+    private static final String SOURCE_PREFIX = "source.";
+    private static final String TARGET_PREFIX = "target.";
+
+    // 每个映射最多缓存的标题指纹数（超出后新的标题每次重新识别）
+    private static final int MAX_LAYOUTS = 256;
+
+    // 默认映射的内容标识（映射文件使用文件内容的 SHA-256）
+    private static final String DEFAULT_HASH = "default";
+
+    private static final ColumnMapping DEFAULTS = new ColumnMapping(null, ExcelDataExtractor.SOURCE_START_ROW - 1,
+            true, builtInHeaders(), SourceLayout.DEFAULT, TargetLayout.DEFAULT, DEFAULT_HASH, 0L, 0L);
+
+    private static final Map<String, ColumnMapping> CACHE = new ConcurrentHashMap<>();
+
+    private final String location;
+    private final int headerRow;
+    private final boolean autoDetect;
+    // 规范化的标题名 -> 字段
+    private final Map<String, SourceField> headers;
+    private final SourceLayout fallback;
+    private final TargetLayout target;
+    private final String hash;
+    private final long lastModified;
+    private final long length;
+    // 标题指纹 -> 布局
+    private final Map<String, SourceLayout> layouts = new ConcurrentHashMap<>();
+
+    private ColumnMapping(String location, int headerRow, boolean autoDetect, Map<String, SourceField> headers,
+                          SourceLayout fallback, TargetLayout target, String hash, long lastModified, long length) {
+        this.location = location;
+        this.headerRow = headerRow;
+        this.autoDetect = autoDetect;
+        this.headers = headers;
+        this.fallback = fallback;
+        this.target = target;
+        this.hash = hash;
+        this.lastModified = lastModified;
+        this.length = length;
+    }
+
+    /**
+     * 原有的固定布局（同样按标题行自动识别）
+     */
+    static ColumnMapping defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * 获取列映射，必要时加载或重新加载
+     *
+     * @param location 映射文件路径，null 或空表示默认映射
+     */
+    static ColumnMapping get(String location) throws IOException {
+        if (location == null || location.trim().isEmpty()) {
+            return DEFAULTS;
+        }
+        File file = new File(location.trim()).getAbsoluteFile();
+        if (!file.isFile()) {
+            throw new FileNotFoundException("列映射文件未找到: " + location);
+        }
+        ColumnMapping cached = CACHE.get(file.getPath());
+        if (cached != null && cached.lastModified == file.lastModified() && cached.length == file.length()) {
+            return cached;
+        }
+        // 多个线程同时加载时结果相同，保留最后一个即可
+        ColumnMapping loaded = load(file);
+        CACHE.put(file.getPath(), loaded);
+        return loaded;
+    }
+
+    /**
+     * 映射文件路径（默认映射为 null）
+     */
+    String getLocation() {
+        return location;
+    }
+
+    /**
+     * 标题行索引（从0开始）
+     */
+    int getHeaderRow() {
+        return headerRow;
+    }
+
+    /**
+     * 数据起始行索引（标题行的下一行）
+     */
+    int getStartRow() {
+        return headerRow + 1;
+    }
+
+    TargetLayout getTarget() {
+        return target;
+    }
+
+    /**
+     * 映射内容的标识：映射文件内容的 SHA-256 哈希，默认映射为固定值
+     */
+    String getHash() {
+        return hash;
+    }
+
+    /**
+     * 按标题行确定源文件布局（同样的标题文本只识别一次）
+     *
+     * @param header 标题行的单元格值，工作表中没有标题行时为空
+     */
+    SourceLayout resolve(RowValues header, JobContext context) {
+        if (!autoDetect) {
+            return fallback;
+        }
+        String fingerprint = fingerprint(header);
+        SourceLayout layout = layouts.get(fingerprint);
+        if (layout == null) {
+            layout = detect(header, context);
+            if (layouts.size() < MAX_LAYOUTS) {
+                layouts.putIfAbsent(fingerprint, layout);
+            }
+        } else if (context.isDebugEnabled()) {
+            context.debug("  列布局: " + layout.describe());
+        }
+        return layout;
+    }
+
+    /**
+     * 标题行中所有非空单元格的列号和文本
+     */
+    private static String fingerprint(RowValues header) {
+        StringBuilder text = new StringBuilder();
+        for (int col = 0; col < header.columnCount(); col++) {
+            String value = header.get(col);
+            if (!value.isEmpty()) {
+                text.append(col).append('=').append(value).append('\n');
+            }
+        }
+        return text.toString();
+    }
+
+    private SourceLayout detect(RowValues header, JobContext context) {
+        SourceField[] fields = SourceField.values();
+        int[] columns = new int[fields.length];
+        Arrays.fill(columns, -1);
+        int found = 0;
+        for (int col = 0; col < header.columnCount(); col++) {
+            SourceField field = headers.get(normalize(header.get(col)));
+            if (field != null && columns[field.ordinal()] < 0) {
+                columns[field.ordinal()] = col;
+                found++;
+            }
+        }
+
+        if (found == 0) {
+            // 没有可识别的标题（或没有标题行）
+            return fallback;
+        }
+        if (found < fields.length) {
+            List<String> missing = new ArrayList<>();
+            for (SourceField field : fields) {
+                if (columns[field.ordinal()] < 0) {
+                    missing.add(field.name());
+                }
+            }
+            String message = "  标题行中没有找到 " + String.join(", ", missing) + "，使用" + fallback.describe();
+            if (location != null) {
+                context.warn(message);
+            } else {
+                // 内置布局下标题不完整很常见，只在 DEBUG 级别说明
+                context.debug(message);
+            }
+            return fallback;
+        }
+        if (fallback.sameColumns(columns)) {
+            return fallback;
+        }
+        SourceLayout layout = new SourceLayout(columns, "标题行识别的布局");
+        context.info("  按标题行识别列布局: " + layout.describe());
+        return layout;
+    }
+
+    /**
+     * 去掉首尾空白、合并连续空白并转为大写
+     */
+    private static String normalize(String header) {
+        return header.trim().replaceAll("\\s+", " ").toUpperCase(Locale.ROOT);
+    }
+
+    private static Map<String, SourceField> builtInHeaders() {
+        Map<String, SourceField> headers = new HashMap<>();
+        for (SourceField field : SourceField.values()) {
+            headers.put(normalize(field.header()), field);
+        }
+        return headers;
+    }
+
+    /**
+     * 读取并编译映射文件
+     */
+    private static ColumnMapping load(File file) throws IOException {
+        long lastModified = file.lastModified();
+        long length = file.length();
+        byte[] content = Files.readAllBytes(file.toPath());
+        Properties properties = new Properties();
+        try (Reader reader = new StringReader(new String(content, StandardCharsets.UTF_8))) {
+            properties.load(reader);
+        }
+
+        int headerRow = ExcelDataExtractor.SOURCE_START_ROW - 1;
+        boolean autoDetect = true;
+        Map<String, SourceField> headers = builtInHeaders();
+        int[] source = SourceLayout.defaultColumns();
+        int[] target = TargetLayout.defaultColumns();
+
+        for (String key : properties.stringPropertyNames()) {
+            String value = properties.getProperty(key).trim();
+            if (HEADER_ROW_KEY.equals(key)) {
+                headerRow = parseRow(file, key, value) - 1;
+            } else if (AUTO_DETECT_KEY.equals(key)) {
+                if (!"true".equalsIgnoreCase(value) && !"false".equalsIgnoreCase(value)) {
+                    throw invalid(file, key + " 必须是 true 或 false: " + value);
+                }
+                autoDetect = Boolean.parseBoolean(value);
+            } else if (key.startsWith(SOURCE_PREFIX)) {
+                source[field(file, SourceField.class, key, SOURCE_PREFIX).ordinal()] = parseColumn(file, key, value);
+            } else if (key.startsWith(TARGET_PREFIX)) {
+                target[field(file, TargetField.class, key, TARGET_PREFIX).ordinal()] = parseColumn(file, key, value);
+            } else if (key.startsWith(HEADER_PREFIX)) {
+                SourceField field = field(file, SourceField.class, key, HEADER_PREFIX);
+                for (String alias : value.split("\\|")) {
+                    if (!alias.trim().isEmpty()) {
+                        headers.put(normalize(alias), field);
+                    }
+                }
+            } else {
+                throw invalid(file, "未知的配置项: " + key);
+            }
+        }
+
+        TargetLayout targetLayout;
+        try {
+            targetLayout = new TargetLayout(target);
+        } catch (IllegalArgumentException e) {
+            throw invalid(file, e.getMessage());
+        }
+        return new ColumnMapping(file.getPath(), headerRow, autoDetect, headers,
+                new SourceLayout(source, "配置的布局"), targetLayout, TemplateCache.sha256(content),
+                lastModified, length);
+    }
+
+    private static <E extends Enum<E>> E field(File file, Class<E> type, String key, String prefix)
+            throws IOException {
+        try {
+            return Enum.valueOf(type, key.substring(prefix.length()));
+        } catch (IllegalArgumentException e) {
+            throw invalid(file, "未知的字段: " + key);
+        }
+    }
+
+    /**
+     * 列名（A、B、...、AA）转为列索引
+     */
+    private static int parseColumn(File file, String key, String value) throws IOException {
+        if (!value.matches("[A-Za-z]{1,3}")) {
+            throw invalid(file, key + " 必须是列名（例如 Q）: " + value);
+        }
+        int col = CellReference.convertColStringToIndex(value.toUpperCase(Locale.ROOT));
+        if (col > SpreadsheetVersion.EXCEL2007.getLastColumnIndex()) {
+            throw invalid(file, key + " 超出最大列: " + value);
+        }
+        return col;
+    }
+
+    private static int parseRow(File file, String key, String value) throws IOException {
+        try {
+            int row = Integer.parseInt(value);
+            if (row >= 1) {
+                return row;
+            }
+        } catch (NumberFormatException e) {
+            // 下面统一报错
+        }
+        throw invalid(file, key + " 必须是正整数（Excel 行号）: " + value);
+    }
+
+    private static IOException invalid(File file, String message) {
+        return new IOException("列映射文件无效: " + file.getPath() + " - " + message);
+    }
+}
@@ -0,0 +1,59 @@
+package com.sws4cloud.pltools;
+
+import java.util.Arrays;
+
+/**
+ * 提取时需要读取的源文件列（列投影）。
+ * <p>
+ * 读取器只解码这些列的单元格：其他单元格的 XML 仍会被解析，但不保存文本、不查共享字符串表，
+ * 空行判断也只看这些列。供应商文件常带几十个与提取无关的列，投影后解码量只取决于需要的列数。
+ */
+final class ColumnSet {
+
+    private final int[] columns;
+    private final boolean[] contains;
+
+    private ColumnSet(int[] columns) {
+        this.columns = columns;
+        this.contains = new boolean[columns[columns.length - 1] + 1];
+        for (int col : columns) {
+            contains[col] = true;
+        }
+    }
+
+    /**
+     * @param columns 列索引（从0开始，可以重复、无序）
+     */
+    static ColumnSet of(int... columns) {
+        if (columns.length == 0) {
+            throw new IllegalArgumentException("列投影不能为空");
+        }
+        int[] sorted = Arrays.stream(columns).distinct().sorted().toArray();
+        if (sorted[0] < 0) {
+            throw new IllegalArgumentException("无效的列索引: " + sorted[0]);
+        }
+        return new ColumnSet(sorted);
+    }
+
+    boolean contains(int col) {
+        return col >= 0 && col < contains.length && contains[col];
+    }
+
+    /**
+     * 最大的列索引
+     */
+    int maxColumn() {
+        return columns[columns.length - 1];
+    }
+
+    int size() {
+        return columns.length;
+    }
+
+    /**
+     * 第 index 个列索引（按升序）
+     */
+    int get(int index) {
+        return columns[index];
+    }
+}
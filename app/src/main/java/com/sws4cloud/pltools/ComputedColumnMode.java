@@ -0,0 +1,29 @@
+package com.sws4cloud.pltools;
+
+/**
+ * 计算列（H 列 TOTAL N.W、O 列 Pallets）的写出方式
+ */
+public enum ComputedColumnMode {
+    /**
+     * 写入公式，同时写入计算好的缓存值（打开文件时无需重新计算即可显示）
+     */
+    FORMULAS,
+    /**
+     * 只写入计算好的数值
+     */
+    VALUES;
+
+    /**
+     * 解析名称（不区分大小写），无法识别时返回默认值
+     */
+    public static ComputedColumnMode parse(String name, ComputedColumnMode defaultMode) {
+        if (name == null || name.trim().isEmpty()) {
+            return defaultMode;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return defaultMode;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.sws4cloud.pltools;
+
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * 输出文件的计算列和汇总值。
+ * <p>
+ * 在写出任何单元格之前，一次遍历类型化的数据行，得到每行的 TOTAL N.W（净重 × 箱数）、
+ * 托盘总箱数和 Pallets（箱数 / 托盘总箱数），同时累加第12行的 Cases、Net Kg、Pallets 汇总。
+ * 写出时只读取这里的结果，不再从单元格回读。
+ */
+final class ComputedColumns {
+
+    private final double[] totalNetWeight;
+    private final int[] palletCases;
+    private final double[] pallets;
+    private final double totalCases;
+    private final double totalNetKg;
+    private final double totalPallets;
+
+    private ComputedColumns(double[] totalNetWeight, int[] palletCases, double[] pallets,
+                            double totalCases, double totalNetKg, double totalPallets) {
+        this.totalNetWeight = totalNetWeight;
+        this.palletCases = palletCases;
+        this.pallets = pallets;
+        this.totalCases = totalCases;
+        this.totalNetKg = totalNetKg;
+        this.totalPallets = totalPallets;
+    }
+
+    /**
+     * 计算所有行的计算列和汇总
+     *
+     * @param rows         数据行
+     * @param palletCasesOf 每行所属托盘的总箱数
+     */
+    static ComputedColumns compute(List<DataRow> rows, ToIntFunction<DataRow> palletCasesOf) {
+        int size = rows.size();
+        double[] totalNetWeight = new double[size];
+        int[] palletCases = new int[size];
+        double[] pallets = new double[size];
+        double totalCases = 0;
+        double totalNetKg = 0;
+        double totalPallets = 0;
+
+        for (int i = 0; i < size; i++) {
+            DataRow row = rows.get(i);
+            int cases = palletCasesOf.applyAsInt(row);
+
+            totalNetWeight[i] = rowTotalNetWeight(row);
+            palletCases[i] = cases;
+            pallets[i] = rowPallets(row.quantity, cases);
+
+            totalCases += row.quantity;
+            totalNetKg += totalNetWeight[i];
+            totalPallets += pallets[i];
+        }
+        return new ComputedColumns(totalNetWeight, palletCases, pallets, totalCases, totalNetKg, totalPallets);
+    }
+
+    /**
+     * 单行的 TOTAL N.W（流水线模式逐行计算时使用，与 compute 的结果相同）
+     */
+    static double rowTotalNetWeight(DataRow row) {
+        return row.netWeight * row.quantity;
+    }
+
+    /**
+     * 单行的 Pallets（托盘总箱数为0时为0）
+     */
+    static double rowPallets(int quantity, int palletCases) {
+        return palletCases != 0 ? (double) quantity / palletCases : 0.0;
+    }
+
+    /**
+     * H列: TOTAL N.W = N.W * CASES
+     */
+    double totalNetWeight(int row) {
+        return totalNetWeight[row];
+    }
+
+    /**
+     * N列: 该行所属托盘的总箱数
+     */
+    int palletCases(int row) {
+        return palletCases[row];
+    }
+
+    /**
+     * O列: Pallets = CASES / 托盘总箱数（托盘总箱数为0时为0）
+     */
+    double pallets(int row) {
+        return pallets[row];
+    }
+
+    double getTotalCases() {
+        return totalCases;
+    }
+
+    double getTotalNetKg() {
+        return totalNetKg;
+    }
+
+    double getTotalPallets() {
+        return totalPallets;
+    }
+}
@@ -0,0 +1,183 @@
+package com.sws4cloud.pltools;
+
+import com.sws4cloud.pltools.ExcelDataExtractor.BufferedLogCallback;
+import com.sws4cloud.pltools.ExcelDataExtractor.FileResult;
+import com.sws4cloud.pltools.JfrEvents.FileEvent;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * 合并模式：一个批次的所有源文件合并写入一个输出工作簿。
+ * <p>
+ * 各文件在工作线程中并行提取，每个文件得到自己的数据行和部分汇总（使用各自的字符串字典）；
+ * 主线程按文件名顺序依次归并部分汇总，并把数据行的字典编号转换到合并后的字典。
+ * 托盘总箱数因此跨文件计算（同一托盘可能分布在多个供应商文件中）。
+ * 最后按模板布局（TARGET_START_ROW 和列映射中的目标列）写出一个文件。
+ */
+final class ConsolidatedExtraction {
+
+    private ConsolidatedExtraction() {
+    }
+
+    /**
+     * 单个文件的提取结果
+     */
+    private static final class Partial {
+        final FileResult result;
+        final List<DataRow> rows;
+        final PalletAggregation aggregation;
+
+        Partial(FileResult result, List<DataRow> rows, PalletAggregation aggregation) {
+            this.result = result;
+            this.rows = rows;
+            this.aggregation = aggregation;
+        }
+    }
+
+    /**
+     * 提取并合并所有文件，写出合并后的输出文件
+     *
+     * @return 每个源文件的提取结果（按文件顺序）；合并文件写出失败时所有文件都记为失败
+     */
+    static List<FileResult> run(File[] sourceFiles, String templateFilePath, File outputDir,
+                                ExtractionOptions options, int workers, RunMetrics run,
+                                JobContext context)
+            throws InterruptedException {
+        File outputFile = new File(outputDir, options.getConsolidatedOutput());
+        context.info("合并模式: " + sourceFiles.length + " 个文件合并输出到 " + outputFile.getName()
+                + ", 工作线程数: " + workers);
+
+        ExecutorService pool = ExcelDataExtractor.newWorkerPool(workers, sourceFiles.length);
+        try {
+            List<BufferedLogCallback> buffers = new ArrayList<>(sourceFiles.length);
+            List<Future<Partial>> futures = new ArrayList<>(sourceFiles.length);
+            for (int i = 0; i < sourceFiles.length; i++) {
+                File sourceFile = sourceFiles[i];
+                int index = i;
+                BufferedLogCallback buffer = new BufferedLogCallback();
+                buffers.add(buffer);
+                JobContext fileContext = context.withLog(buffer).withMetrics(run.newFile(sourceFile.getName()));
+                futures.add(pool.submit(() -> extract(sourceFile, index, sourceFiles.length, options, fileContext)));
+            }
+
+            // 按文件顺序归并，后面的文件仍在并行提取
+            StringDictionary dictionary = new StringDictionary();
+            PalletAggregation combined = new PalletAggregation(dictionary);
+            List<DataRow> rows = new ArrayList<>();
+            List<FileResult> results = new ArrayList<>(sourceFiles.length);
+            for (int i = 0; i < futures.size(); i++) {
+                Partial partial;
+                try {
+                    partial = futures.get(i).get();
+                } catch (ExecutionException e) {
+                    partial = new Partial(FileResult.failed(sourceFiles[i].getName(), 0L,
+                            String.valueOf(e.getCause())), null, null);
+                }
+                buffers.get(i).replayTo(context.getLog());
+                results.add(partial.result);
+                if (partial.rows != null) {
+                    int[] remap = combined.merge(partial.aggregation);
+                    remapRows(partial.rows, remap, dictionary);
+                    rows.addAll(partial.rows);
+                }
+            }
+
+            JobContext outputContext = context.withMetrics(run.newConsolidatedOutput(outputFile.getName()));
+            return write(rows, combined, results, templateFilePath, outputFile, options, outputContext);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * 在工作线程中提取单个文件并计算部分汇总
+     */
+    private static Partial extract(File sourceFile, int index, int total, ExtractionOptions options,
+                                   JobContext context) {
+        long start = System.nanoTime();
+        FileMetrics metrics = context.getMetrics();
+        metrics.snapshotHeapBefore();
+        FileEvent fileEvent = new FileEvent();
+        fileEvent.begin();
+        boolean success = false;
+        context.info("\n[" + (index + 1) + "/" + total + "] 提取文件: " + sourceFile.getName());
+        try {
+            StringDictionary dictionary = new StringDictionary();
+            List<DataRow> rows = new ArrayList<>();
+            // 每个文件按自己的标题行确定列布局
+            ColumnMapping mapping = ColumnMapping.get(options.getColumnMapping());
+            if (options.isIntraFileParallel()) {
+                ForkJoinExtraction.extract(sourceFile.getAbsolutePath(), mapping, dictionary, context,
+                        rows::add);
+            } else {
+                ExcelDataExtractor.extractDataFromSource(sourceFile.getAbsolutePath(), mapping, dictionary, context,
+                        rows::add);
+            }
+            long stageStart = metrics.begin();
+            PalletAggregation aggregation = PalletAggregation.of(rows, dictionary);
+            metrics.record(Stage.AGGREGATION, stageStart);
+            context.info("     提取到 " + rows.size() + " 行数据");
+            success = true;
+            return new Partial(FileResult.succeeded(sourceFile.getName(), System.nanoTime() - start, rows.size()),
+                    rows, aggregation);
+        } catch (Exception e) {
+            context.error("  提取文件 " + sourceFile.getName() + " 时发生错误: " + e.getMessage());
+            return new Partial(FileResult.failed(sourceFile.getName(), System.nanoTime() - start, e.getMessage()),
+                    null, null);
+        } finally {
+            metrics.snapshotHeapAfter();
+            fileEvent.finish(sourceFile, null, metrics.getRows(), success);
+        }
+    }
+
+    /**
+     * 把数据行的字典编号转换为合并后字典的编号
+     */
+    private static void remapRows(List<DataRow> rows, int[] remap, StringDictionary dictionary) {
+        for (DataRow row : rows) {
+            row.remap(remap, dictionary);
+        }
+    }
+
+    private static List<FileResult> write(List<DataRow> rows, PalletAggregation combined, List<FileResult> results,
+                                          String templateFilePath, File outputFile, ExtractionOptions options,
+                                          JobContext context) {
+        context.info("\n写入合并文件: " + outputFile.getName() + "（" + rows.size() + " 行）");
+        FileMetrics metrics = context.getMetrics();
+        metrics.snapshotHeapBefore();
+        metrics.addRows(rows.size());
+        long stageStart = metrics.begin();
+        ComputedColumns computed = ComputedColumns.compute(rows, combined::palletCases);
+        metrics.record(Stage.COMPUTED_COLUMNS, stageStart);
+        PalletAggregation summary = options.isSummarySheet() ? combined : null;
+        try {
+            TargetLayout target = ColumnMapping.get(options.getColumnMapping()).getTarget();
+            if (options.isStreamingWrite()) {
+                ExcelDataExtractor.writeDataToTemplateStreaming(rows, computed, summary, templateFilePath,
+                        outputFile.getPath(), options.getRowAccessWindow(), target, options.getComputedColumnMode(),
+                        context);
+            } else {
+                ExcelDataExtractor.writeDataToTemplate(rows, computed, summary, templateFilePath,
+                        outputFile.getPath(), target, options.getComputedColumnMode(), context);
+            }
+            context.info("  合并完成！输出文件: " + outputFile.getPath());
+            metrics.snapshotHeapAfter();
+            return results;
+        } catch (Exception e) {
+            context.error("  写入合并文件 " + outputFile.getName() + " 时发生错误: " + e.getMessage());
+            List<FileResult> failed = new ArrayList<>(results.size());
+            for (FileResult result : results) {
+                failed.add(result.isSuccess()
+                        ? FileResult.failed(result.getFileName(), result.getElapsedNanos(),
+                        "写入合并文件失败: " + e.getMessage())
+                        : result);
+            }
+            return failed;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.sws4cloud.pltools;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * 从源文件提取的一行数据
+ */
+class DataRow {
+    // 没有可识别的装箱日期
+    static final int NO_DATE = Integer.MIN_VALUE;
+
+    String idPallet;
+    String label;
+    String variety;
+    String size;
+    double netWeight;
+    int quantity;
+    String csg;
+    String csp;
+    // 装箱日期（epoch day），无法识别为 yyyy-MM-dd 时为 NO_DATE，原文保存在 packingDateText
+    int packingDay = NO_DATE;
+    String packingDateText;
+    String cat;
+    String tempRecorder;
+
+    // 托盘号、品种、规格在所属文件字符串字典中的编号（汇总时作为分组键）
+    int palletId;
+    int varietyId;
+    int sizeId;
+
+    /**
+     * 设置装箱日期：yyyy-MM-dd 格式的日期按 epoch day 保存，其他内容保留原文
+     */
+    void setPackingDate(String text) {
+        int day = parseEpochDay(text);
+        packingDay = day;
+        packingDateText = day == NO_DATE ? text : null;
+    }
+
+    /**
+     * 设置已经解码为 epoch day 的装箱日期（日期单元格）
+     */
+    void setPackingDay(int day) {
+        packingDay = day;
+        packingDateText = null;
+    }
+
+    /**
+     * 把字典编号转换为另一个字典的编号（合并不同字典提取的数据行时使用）
+     *
+     * @param remap      原字典编号 -> dictionary 编号
+     * @param dictionary 合并后的字典
+     */
+    void remap(int[] remap, StringDictionary dictionary) {
+        palletId = remap[palletId];
+        varietyId = remap[varietyId];
+        sizeId = remap[sizeId];
+        idPallet = dictionary.valueOf(palletId);
+        variety = dictionary.valueOf(varietyId);
+        size = dictionary.valueOf(sizeId);
+    }
+
+    /**
+     * 装箱日期的文本形式（与源文件中的文本一致）
+     */
+    String getPackingDateText() {
+        return packingDay != NO_DATE ? LocalDate.ofEpochDay(packingDay).toString() : packingDateText;
+    }
+
+    private static int parseEpochDay(String text) {
+        if (text == null || text.length() != 10 || text.charAt(4) != '-' || text.charAt(7) != '-') {
+            return NO_DATE;
+        }
+        try {
+            LocalDate date = LocalDate.parse(text);
+            // 只接受能原样还原的文本
+            return date.toString().equals(text) ? (int) date.toEpochDay() : NO_DATE;
+        } catch (DateTimeParseException e) {
+            return NO_DATE;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "DataRow{" +
+                "idPallet='" + idPallet + '\'' +
+                ", variety='" + variety + '\'' +
+                ", size='" + size + '\'' +
+                ", quantity=" + quantity +
+                '}';
+    }
+}
@@ -0,0 +1,576 @@
+package com.sws4cloud.pltools;
+
+import javafx.animation.AnimationTimer;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.fxml.FXML;
+import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TextField;
+import javafx.scene.control.ToggleButton;
+import javafx.stage.DirectoryChooser;
+import javafx.stage.FileChooser;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class DirectorySelectorController {
+
+    // 日志列表最多保留的行数，超出后丢弃最早的行
+    private static final int LOG_CAPACITY = 5000;
+
+    // 每个界面脉冲最多取出的日志行数
+    private static final int LOG_LINES_PER_PULSE = 2000;
+
+    // 指定后所有日志同时追加写入该文件（不受日志列表容量限制）
+    private static final String LOG_FILE_PROPERTY = "pltools.logFile";
+
+    private static final DateTimeFormatter LOG_TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    @FXML
+    private Label sourceDirLabel;
+
+    @FXML
+    private Label targetDirLabel;
+
+    @FXML
+    private TextField sourceDirectoryField;
+
+    @FXML
+    private TextField targetDirectoryField;
+
+    @FXML
+    private Button chooseSourceButton;
+
+    @FXML
+    private Button chooseTargetButton;
+
+    @FXML
+    private Button executeButton;
+
+    @FXML
+    private Button languageToggleButton;
+
+    @FXML
+    private CheckBox incrementalCheckBox;
+
+    @FXML
+    private ToggleButton watchButton;
+
+    // 监视模式的目录监视器（未监视时为 null）
+    private DirectoryWatcher directoryWatcher;
+
+    // 有后台任务（手动执行或正在停止的监视）尚未结束，只在界面线程中访问
+    private boolean busy;
+
+    @FXML
+    private Label statusLabel;
+
+    @FXML
+    private Label logLabel;
+
+    @FXML
+    private ListView<String> logListView;
+
+    // 后台线程产生、等待界面取出的日志行
+    private final Queue<String> pendingLogs = new ConcurrentLinkedQueue<>();
+    private final ObservableList<String> logItems = FXCollections.observableArrayList();
+
+    // 最近一次错误信息，由日志脉冲统一更新到状态栏
+    private volatile String pendingStatus;
+
+    // 日志文件写入线程（未配置日志文件时为 null）
+    private ExecutorService logFileWriter;
+    private BufferedWriter logFile;
+
+    private File sourceDirectory;
+    private File targetDirectory;
+    private boolean isChinese = true; // 默认为中文
+
+    @FXML
+    private TextField templateFileField;
+
+    @FXML
+    private Button chooseTemplateButton;
+
+    private File templateFile;
+
+    @FXML
+    private Label templateFileLabel;
+
+    @FXML
+    protected void onChooseTemplateButtonClick() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle(isChinese ? "选择模板文件" : "Select Template File");
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Excel Files", "*.xlsx"));
+
+        if (templateFile != null && templateFile.exists()) {
+            fileChooser.setInitialDirectory(templateFile.getParentFile());
+        } else if (sourceDirectory != null && sourceDirectory.exists()) {
+            fileChooser.setInitialDirectory(sourceDirectory);
+        }
+
+        File selectedFile = fileChooser.showOpenDialog(templateFileField.getScene().getWindow());
+        if (selectedFile != null) {
+            templateFile = selectedFile;
+            templateFileField.setText(selectedFile.getAbsolutePath());
+            statusLabel.setText(isChinese ?
+                    "已选择模板文件: " + selectedFile.getName() :
+                    "Selected template file: " + selectedFile.getName());
+        }
+    }
+
+    @FXML
+    protected void onExecuteButtonClick() throws MalformedURLException {
+        // 检查是否已选择必要目录
+        if (getSourceDirectory() == null || getTargetDirectory() == null) {
+            statusLabel.setText(isChinese ? "请先选择源目录和目标目录！" : "Please select source and target directories first!");
+            appendLog(isChinese ? "错误: 请先选择源目录和目标目录！" : "Error: Please select source and target directories first!");
+            return;
+        }
+
+        String templateFilePath = resolveTemplatePath();
+        if (templateFilePath == null) {
+            return;
+        }
+
+        busy = true;
+        updateControls();
+        ExtractionOptions options = ExtractionOptions.defaults().setIncremental(incrementalCheckBox.isSelected());
+        appendLog(isChinese ? "开始执行Excel数据提取任务..." : "Starting Excel data extraction task...");
+
+        // 在后台线程中执行耗时操作
+        new Thread(() -> {
+            try {
+                ExcelDataExtractor.executeDataExtraction(
+                        templateFilePath,
+                        getSourceDirectory().getAbsolutePath(),
+                        getTargetDirectory().getAbsolutePath(),
+                        options,
+                        new ExcelDataExtractor.LogCallback() {
+                            @Override
+                            public void logMessage(String message) {
+                                // 放入队列，由界面脉冲批量取出
+                                appendLog(message);
+                            }
+
+                            @Override
+                            public void logError(String message) {
+                                appendLog("ERROR: " + message);
+                                pendingStatus = isChinese ? "执行出错: " + message : "Execution error: " + message;
+                            }
+                        }
+                );
+            } finally {
+                // 任务结束后重新启用执行和监视
+                javafx.application.Platform.runLater(() -> {
+                    pendingStatus = null;
+                    busy = false;
+                    updateControls();
+                    statusLabel.setText(isChinese ? "任务执行完成" : "Task completed");
+                });
+            }
+        }).start();
+    }
+
+    @FXML
+    private Button clearLogButton;
+
+    /**
+     * 确定本次使用的模板：用户选择的模板优先，否则使用内置模板。找不到模板时返回 null
+     */
+    private String resolveTemplatePath() {
+        String templateFilePath;
+        if (templateFile != null && templateFile.exists()) {
+            templateFilePath = templateFile.getAbsolutePath();
+            appendLog(isChinese ? "使用用户选择的模板文件: " + templateFilePath :
+                    "Using user selected template file: " + templateFilePath);
+        } else {
+            // 使用默认模板文件加载逻辑
+            String templateResourcePath = "templates/PL-Template1.xlsx";
+            ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+            java.net.URL resourceUrl = classLoader.getResource(templateResourcePath);
+
+            if (resourceUrl == null) {
+                // 如果类路径加载失败，尝试从文件系统加载
+                String projectPath = System.getProperty("user.dir");
+                File defaultTemplateFile = new File(projectPath,
+                        "app/src/main/resources/templates/PL-Template1.xlsx");
+
+                if (defaultTemplateFile.exists()) {
+                    templateFilePath = defaultTemplateFile.getAbsolutePath();
+                    appendLog(isChinese ? "使用默认模板文件: " + templateFilePath :
+                            "Using default template file: " + templateFilePath);
+                } else {
+                    String errorMsg = isChinese ? "未找到模板文件" : "Template file not found";
+                    appendLog("ERROR: " + errorMsg);
+                    statusLabel.setText(errorMsg);
+                    return null;
+                }
+            } else {
+                // 通过模板缓存从类路径流加载，打包成 jar 后同样可用
+                templateFilePath = TemplateCache.CLASSPATH_PREFIX + templateResourcePath;
+                appendLog(isChinese ? "使用内置模板文件" : "Using built-in template file");
+            }
+        }
+        return templateFilePath;
+    }
+
+    @FXML
+    protected void onWatchButtonClick() {
+        if (directoryWatcher != null) {
+            stopWatching();
+            return;
+        }
+        if (busy) {
+            watchButton.setSelected(false);
+            return;
+        }
+        if (getSourceDirectory() == null || getTargetDirectory() == null) {
+            watchButton.setSelected(false);
+            statusLabel.setText(isChinese ? "请先选择源目录和目标目录！" : "Please select source and target directories first!");
+            appendLog(isChinese ? "错误: 请先选择源目录和目标目录！" : "Error: Please select source and target directories first!");
+            return;
+        }
+        String templateFilePath = resolveTemplatePath();
+        if (templateFilePath == null) {
+            watchButton.setSelected(false);
+            return;
+        }
+
+        DirectoryWatcher watcher;
+        try {
+            watcher = new DirectoryWatcher(templateFilePath, getSourceDirectory(), getTargetDirectory(),
+                    ExtractionOptions.defaults(), new ExcelDataExtractor.LogCallback() {
+                @Override
+                public void logMessage(String message) {
+                    appendLog(message);
+                }
+
+                @Override
+                public void logError(String message) {
+                    appendLog("ERROR: " + message);
+                    pendingStatus = isChinese ? "执行出错: " + message : "Execution error: " + message;
+                }
+            });
+            watcher.start();
+        } catch (IllegalArgumentException | IOException e) {
+            watchButton.setSelected(false);
+            appendLog("ERROR: " + (isChinese ? "无法监视目录: " : "Cannot watch directory: ") + e.getMessage());
+            return;
+        }
+        directoryWatcher = watcher;
+        watchButton.setSelected(true);
+        updateControls();
+        watchButton.setText(isChinese ? "停止监视" : "Stop Watching");
+        statusLabel.setText(isChinese ? "正在监视源目录..." : "Watching source directory...");
+    }
+
+    private void stopWatching() {
+        DirectoryWatcher watcher = directoryWatcher;
+        directoryWatcher = null;
+        // 等待当前批次结束可能需要一些时间，在后台线程中停止；停止完成前不允许执行或重新监视
+        busy = true;
+        watchButton.setSelected(false);
+        watchButton.setText(isChinese ? "监视目录" : "Watch Folder");
+        statusLabel.setText(isChinese ? "正在停止监视..." : "Stopping watch...");
+        updateControls();
+        Thread stopper = new Thread(() -> {
+            try {
+                watcher.close();
+            } finally {
+                javafx.application.Platform.runLater(() -> {
+                    busy = false;
+                    updateControls();
+                    statusLabel.setText(isChinese ? "已停止监视" : "Stopped watching");
+                });
+            }
+        }, "pl-watch-stop");
+        stopper.setDaemon(true);
+        stopper.start();
+    }
+
+    /**
+     * 按当前状态启用或禁用按钮：后台任务运行期间不允许执行或监视，
+     * 监视期间不允许修改目录和模板，也不允许手动执行（只能停止监视）
+     */
+    private void updateControls() {
+        boolean watching = directoryWatcher != null;
+        boolean locked = busy || watching;
+        chooseSourceButton.setDisable(locked);
+        chooseTargetButton.setDisable(locked);
+        chooseTemplateButton.setDisable(locked);
+        executeButton.setDisable(locked);
+        watchButton.setDisable(busy && !watching);
+    }
+
+    @FXML
+    protected void onClearLogButtonClick() {
+        // 只清除已显示的行；队列中尚未取出的日志还要写入日志文件
+        logItems.clear();
+    }
+
+    @FXML
+    protected void initialize() {
+        logListView.setItems(logItems);
+        incrementalCheckBox.setSelected(ExtractionOptions.defaults().isIncremental());
+        openLogFile();
+        startLogPump();
+
+        // 初始化时设置清除日志按钮的文字（根据当前语言）
+        if (isChinese) {
+            clearLogButton.setText("清除日志");
+        } else {
+            clearLogButton.setText("Clear Log");
+        }
+    }
+
+    @FXML
+    protected void onChooseSourceButtonClick() {
+        DirectoryChooser directoryChooser = new DirectoryChooser();
+        directoryChooser.setTitle(isChinese ? "选择源文件目录" : "Select Source Directory");
+
+        if (sourceDirectory != null && sourceDirectory.exists()) {
+            directoryChooser.setInitialDirectory(sourceDirectory);
+        }
+
+        File selectedDirectory = directoryChooser.showDialog(
+                sourceDirectoryField.getScene().getWindow());
+
+        if (selectedDirectory != null) {
+            sourceDirectory = selectedDirectory;
+            sourceDirectoryField.setText(selectedDirectory.getAbsolutePath());
+            statusLabel.setText(isChinese ?
+                    "已选择源目录: " + selectedDirectory.getName() :
+                    "Selected source directory: " + selectedDirectory.getName());
+        }
+    }
+
+    @FXML
+    protected void onChooseTargetButtonClick() {
+        DirectoryChooser directoryChooser = new DirectoryChooser();
+        directoryChooser.setTitle(isChinese ? "选择目标文件目录" : "Select Target Directory");
+
+        if (targetDirectory != null && targetDirectory.exists()) {
+            directoryChooser.setInitialDirectory(targetDirectory);
+        } else if (sourceDirectory != null && sourceDirectory.exists()) {
+            directoryChooser.setInitialDirectory(sourceDirectory);
+        }
+
+        File selectedDirectory = directoryChooser.showDialog(
+                targetDirectoryField.getScene().getWindow());
+
+        if (selectedDirectory != null) {
+            targetDirectory = selectedDirectory;
+            targetDirectoryField.setText(selectedDirectory.getAbsolutePath());
+            statusLabel.setText(isChinese ?
+                    "已选择目标目录: " + selectedDirectory.getName() :
+                    "Selected target directory: " + selectedDirectory.getName());
+        }
+    }
+
+    @FXML
+    protected void onLanguageToggleClick() {
+        isChinese = !isChinese;
+        updateLanguage();
+    }
+
+    private void performBusinessLogic() {
+        appendLog(isChinese ? "正在扫描源目录..." : "Scanning source directory...");
+
+        if (sourceDirectory.listFiles() != null) {
+            int fileCount = sourceDirectory.listFiles().length;
+            appendLog((isChinese ? "源目录中共有 " : "Found ") + fileCount +
+                    (isChinese ? " 个文件/文件夹" : " files/folders in source directory"));
+        }
+
+        appendLog(isChinese ? "文件处理完成" : "File processing completed");
+    }
+
+    /**
+     * 追加一条日志（任意线程可调用）。日志先进入队列，由界面脉冲批量显示，
+     * 不会为每一行单独提交 Platform.runLater
+     */
+    private void appendLog(String message) {
+        String timestamp = LocalDateTime.now().format(LOG_TIME_FORMAT);
+        pendingLogs.add("[" + timestamp + "] " + message);
+    }
+
+    /**
+     * 每个界面脉冲取出一批日志追加到列表。列表是虚拟化的 ListView，只渲染可见行，
+     * 并且最多保留 LOG_CAPACITY 行，因此界面开销与任务产生的日志总量无关
+     */
+    private void startLogPump() {
+        new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                String status = pendingStatus;
+                if (status != null) {
+                    pendingStatus = null;
+                    statusLabel.setText(status);
+                }
+
+                if (pendingLogs.isEmpty()) {
+                    return;
+                }
+                List<String> batch = drainLogs(LOG_LINES_PER_PULSE);
+                spillToLogFile(batch);
+
+                if (batch.size() >= LOG_CAPACITY) {
+                    logItems.setAll(batch.subList(batch.size() - LOG_CAPACITY, batch.size()));
+                } else {
+                    int overflow = logItems.size() + batch.size() - LOG_CAPACITY;
+                    if (overflow > 0) {
+                        logItems.remove(0, overflow);
+                    }
+                    logItems.addAll(batch);
+                }
+                logListView.scrollTo(logItems.size() - 1);
+            }
+        }.start();
+    }
+
+    /**
+     * 从队列中取出日志，多行消息按行拆开
+     */
+    private List<String> drainLogs(int limit) {
+        List<String> batch = new ArrayList<>();
+        String line;
+        while (batch.size() < limit && (line = pendingLogs.poll()) != null) {
+            for (String part : line.split("\n", -1)) {
+                batch.add(part);
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * 窗口关闭时调用：把尚未显示的日志写入日志文件，然后关闭日志文件
+     */
+    void shutdown() {
+        if (logFileWriter == null) {
+            return;
+        }
+        List<String> rest = drainLogs(Integer.MAX_VALUE);
+        if (!rest.isEmpty()) {
+            spillToLogFile(rest);
+        }
+        BufferedWriter file = logFile;
+        logFileWriter.execute(() -> {
+            try {
+                file.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        });
+        logFileWriter.shutdown();
+        try {
+            logFileWriter.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        logFileWriter = null;
+        logFile = null;
+    }
+
+    /**
+     * 按系统属性 pltools.logFile 打开日志文件
+     */
+    private void openLogFile() {
+        String path = System.getProperty(LOG_FILE_PROPERTY);
+        if (path == null || path.trim().isEmpty()) {
+            return;
+        }
+        try {
+            logFile = Files.newBufferedWriter(Paths.get(path), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            logFileWriter = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "pl-log-file");
+                thread.setDaemon(true);
+                return thread;
+            });
+        } catch (IOException e) {
+            appendLog("ERROR: " + (isChinese ? "无法打开日志文件: " : "Cannot open log file: ") + path);
+        }
+    }
+
+    /**
+     * 在后台线程把一批日志写入日志文件
+     */
+    private void spillToLogFile(List<String> batch) {
+        if (logFileWriter == null) {
+            return;
+        }
+        List<String> lines = new ArrayList<>(batch);
+        logFileWriter.execute(() -> {
+            try {
+                for (String line : lines) {
+                    logFile.write(line);
+                    logFile.newLine();
+                }
+                logFile.flush();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        });
+    }
+
+    public File getSourceDirectory() {
+        return sourceDirectory;
+    }
+
+    public File getTargetDirectory() {
+        return targetDirectory;
+    }
+
+    private void updateLanguage() {
+        if (isChinese) {
+            sourceDirLabel.setText("源文件目录:");
+            targetDirLabel.setText("结果存储目录:");
+            templateFileLabel.setText("模板文件:");
+            chooseSourceButton.setText("浏览...");
+            chooseTargetButton.setText("浏览...");
+            chooseTemplateButton.setText("浏览...");
+            executeButton.setText("执行");
+            incrementalCheckBox.setText("增量模式（跳过未变化的文件）");
+            watchButton.setText(directoryWatcher != null ? "停止监视" : "监视目录");
+            languageToggleButton.setText("English");
+            statusLabel.setText("请选择目录");
+            logLabel.setText("执行日志:");
+            clearLogButton.setText("清除日志");
+        } else {
+            sourceDirLabel.setText("Source Directory:");
+            targetDirLabel.setText("Result Directory:");
+            templateFileLabel.setText("Template File:");
+            chooseSourceButton.setText("Browse...");
+            chooseTargetButton.setText("Browse...");
+            chooseTemplateButton.setText("Browse...");
+            executeButton.setText("Execute");
+            incrementalCheckBox.setText("Incremental (skip unchanged files)");
+            watchButton.setText(directoryWatcher != null ? "Stop Watching" : "Watch Folder");
+            languageToggleButton.setText("中文");
+            statusLabel.setText("Please select directories");
+            logLabel.setText("Execution Log:");
+            clearLogButton.setText("Clear Log");
+        }
+    }
+
+
+}
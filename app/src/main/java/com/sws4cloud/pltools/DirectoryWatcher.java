@@ -0,0 +1,223 @@
+package com.sws4cloud.pltools;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 监视源目录，新增或修改的Excel文件写入完成后自动处理。
+ * <p>
+ * 基于 {@link WatchService}。收到文件事件后先放入待处理表，只有文件大小和修改时间在
+ * 静默期内不再变化、且没有对应的 Excel 锁文件（~$开头）时才认为写入完成。
+ * 就绪的文件按批交给提取流程处理，处理始终使用增量模式，内容没有变化的文件不会重复生成。
+ * 启动时会先把目录中已有的文件放入队列，补上监视停止期间到达的文件。
+ * 不支持合并输出：每批只包含就绪的文件，合并文件会被最后一批覆盖。
+ */
+final class DirectoryWatcher implements AutoCloseable {
+
+    // 静默期（毫秒）的系统属性名
+    static final String QUIET_PERIOD_PROPERTY = "pltools.watchQuietMillis";
+
+    // 文件大小和修改时间保持不变多久后才处理
+    static final long DEFAULT_QUIET_PERIOD_MILLIS = 2000;
+
+    // 等待目录事件的轮询间隔
+    private static final long POLL_INTERVAL_MILLIS = 500;
+
+    private static final String LOCK_FILE_PREFIX = "~$";
+
+    private final String templateFilePath;
+    private final Path sourceDir;
+    private final String outputDirPath;
+    private final ExtractionOptions options;
+    private final ExcelDataExtractor.LogCallback logCallback;
+    private final long quietPeriodMillis;
+
+    // 等待写入完成的文件（按到达顺序）
+    private final Map<Path, Pending> pending = new LinkedHashMap<>();
+
+    private WatchService watchService;
+    private Thread thread;
+    private volatile boolean running;
+
+    /**
+     * 待处理文件最近一次观察到的状态
+     */
+    private static final class Pending {
+        long size;
+        long lastModified;
+        long lastChangeMillis;
+    }
+
+    DirectoryWatcher(String templateFilePath, File sourceDir, File outputDir, ExtractionOptions options,
+                     ExcelDataExtractor.LogCallback logCallback) {
+        if (options.getConsolidatedOutput() != null) {
+            throw new IllegalArgumentException("监视模式不支持合并输出: " + options.getConsolidatedOutput());
+        }
+        this.templateFilePath = templateFilePath;
+        this.sourceDir = sourceDir.toPath().toAbsolutePath();
+        this.outputDirPath = outputDir.getAbsolutePath();
+        // 使用副本，不修改调用方的参数
+        this.options = options.copy().setIncremental(true);
+        this.logCallback = logCallback;
+        this.quietPeriodMillis = Math.max(0L, Long.getLong(QUIET_PERIOD_PROPERTY, DEFAULT_QUIET_PERIOD_MILLIS));
+    }
+
+    /**
+     * 注册目录监视并启动后台线程
+     */
+    synchronized void start() throws IOException {
+        if (running) {
+            return;
+        }
+        if (sourceDir.equals(new File(outputDirPath).toPath())) {
+            throw new IOException("监视模式下输出目录不能与源目录相同: " + sourceDir);
+        }
+        watchService = FileSystems.getDefault().newWatchService();
+        sourceDir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+        running = true;
+
+        thread = new Thread(this::run, "pl-watch");
+        thread.setDaemon(true);
+        thread.start();
+        logCallback.logMessage("开始监视目录: " + sourceDir);
+    }
+
+    /**
+     * 停止监视，正在处理的批次会先完成
+     */
+    @Override
+    public synchronized void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            watchService.close();
+        } catch (IOException ignored) {
+            // 关闭失败不影响停止
+        }
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        logCallback.logMessage("已停止监视目录: " + sourceDir);
+    }
+
+    boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        scanDirectory();
+        try {
+            while (running) {
+                WatchKey key = watchService.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    handleEvents(key);
+                }
+                List<File> ready = collectReadyFiles();
+                if (!ready.isEmpty()) {
+                    logCallback.logMessage("\n检测到 " + ready.size() + " 个新增或修改的文件");
+                    ExcelDataExtractor.executeDataExtraction(templateFilePath, ready, outputDirPath, options,
+                            logCallback);
+                }
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            // 监视已停止
+        } catch (RuntimeException e) {
+            logCallback.logError("监视目录时发生错误: " + e.getMessage());
+            running = false;
+        }
+    }
+
+    private void handleEvents(WatchKey key) {
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                // 事件丢失时重新扫描整个目录
+                scanDirectory();
+                continue;
+            }
+            Path name = (Path) event.context();
+            if (isCandidate(name.toString())) {
+                track(sourceDir.resolve(name));
+            }
+        }
+        if (!key.reset()) {
+            logCallback.logError("源目录已不可访问，停止监视: " + sourceDir);
+            running = false;
+        }
+    }
+
+    private void scanDirectory() {
+        for (File file : ExcelDataExtractor.listSourceFiles(sourceDir.toFile())) {
+            track(file.toPath());
+        }
+    }
+
+    private void track(Path path) {
+        Pending state = pending.computeIfAbsent(path, p -> new Pending());
+        File file = path.toFile();
+        state.size = file.length();
+        state.lastModified = file.lastModified();
+        state.lastChangeMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * 取出已经写入完成的文件：静默期内大小和修改时间未变化，且没有被 Excel 打开
+     */
+    private List<File> collectReadyFiles() {
+        List<File> ready = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<Path, Pending>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Path, Pending> entry = iterator.next();
+            File file = entry.getKey().toFile();
+            Pending state = entry.getValue();
+            if (!file.isFile()) {
+                iterator.remove();
+                continue;
+            }
+            long size = file.length();
+            long lastModified = file.lastModified();
+            if (size != state.size || lastModified != state.lastModified) {
+                // 仍在写入
+                state.size = size;
+                state.lastModified = lastModified;
+                state.lastChangeMillis = now;
+                continue;
+            }
+            if (now - state.lastChangeMillis < quietPeriodMillis || size == 0 || isLocked(file)) {
+                continue;
+            }
+            ready.add(file);
+            iterator.remove();
+        }
+        return ready;
+    }
+
+    /**
+     * Excel 打开文件时会在同一目录创建 ~$文件名 的锁文件
+     */
+    private static boolean isLocked(File file) {
+        return new File(file.getParentFile(), LOCK_FILE_PREFIX + file.getName()).exists();
+    }
+
+    private static boolean isCandidate(String name) {
+        return name.toLowerCase().endsWith(".xlsx") && !name.startsWith(LOCK_FILE_PREFIX);
+    }
+}
@@ -0,0 +1,1519 @@
+package com.sws4cloud.pltools;
+
+import com.sws4cloud.pltools.JfrEvents.FileEvent;
+
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.DecimalFormatSymbols;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.SignStyle;
+import java.time.temporal.ChronoField;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+
+public class ExcelDataExtractor {
+
+    // 并行度配置的系统属性名
+    public static final String PARALLELISM_PROPERTY = "pltools.parallelism";
+
+    // 每隔多少行输出一次填充进度
+    private static final int PROGRESS_INTERVAL = 50;
+
+    // 日期单元格的文本格式 yyyy-MM-dd（DateTimeFormatter 不可变，可在线程间共享；超过4位的年份不加正号）
+    private static final DateTimeFormatter DATE_FORMAT = new DateTimeFormatterBuilder()
+            .appendValue(ChronoField.YEAR_OF_ERA, 4, 10, SignStyle.NORMAL)
+            .appendLiteral('-')
+            .appendValue(ChronoField.MONTH_OF_YEAR, 2)
+            .appendLiteral('-')
+            .appendValue(ChronoField.DAY_OF_MONTH, 2)
+            .toFormatter(Locale.ROOT);
+
+    // 数值文本的小数点（与 String.format 使用的默认区域设置一致）
+    private static final char DECIMAL_SEPARATOR =
+            DecimalFormatSymbols.getInstance(Locale.getDefault(Locale.Category.FORMAT)).getDecimalSeparator();
+
+    // 按分值精确计算的数值上限（num * 100 仍在 double 的精确整数范围内）
+    private static final double MAX_EXACT_CENTS = 1e13;
+
+    // 源文件列索引（默认布局，见 SourceField）
+    static final int SRC_COL_ID_PALLET = 16;         // Q - ID PALLET
+    static final int SRC_COL_LABEL = 3;              // D - LABEL
+    static final int SRC_COL_VARIETY = 2;            // C - VARIETY
+    static final int SRC_COL_SIZE = 5;               // F - SIZE
+    static final int SRC_COL_NET_WEIGHT = 7;         // H - NET WEIGHT
+    static final int SRC_COL_QUANTITY = 6;           // G - QUANTITY OF TRAYS
+    static final int SRC_COL_CSG = 10;               // K - CSG
+    static final int SRC_COL_CSP = 9;                // J - CSP
+    static final int SRC_COL_PACKING_DATE = 15;      // P - PACKING DATE
+    static final int SRC_COL_CAT = 4;                // E - CAT
+    static final int SRC_COL_TEMP_RECORDER = 18;     // S - TEMPERATURE RECORDER
+
+    // 源文件数据起始行（第14行为标题行，数据从第15行开始，索引14）
+    static final int SOURCE_START_ROW = 14;
+
+    // 目标文件列索引（默认布局，见 TargetField）
+    static final int TGT_COL_SPECIES = 0;             // A - Species
+    static final int TGT_COL_PALLET_NO = 1;           // B - Pallet No.
+    static final int TGT_COL_BRAND = 2;               // C - Brand
+    static final int TGT_COL_VARIETY = 3;             // D - Variety
+    static final int TGT_COL_SIZE = 4;                // E - Size
+    static final int TGT_COL_NW = 5;                  // F - N.W
+    static final int TGT_COL_CASES = 6;               // G - CASES
+    static final int TGT_COL_TOTAL_NW = 7;            // H - TOTAL N.W
+    static final int TGT_COL_CSG_CODE = 8;            // I - CSG Code
+    static final int TGT_COL_CSP_CODE = 9;            // J - CSP Code
+    static final int TGT_COL_PACKING_DATE = 10;       // K - Packing Date
+    static final int TGT_COL_CATEGORY = 11;           // L - Category
+    static final int TGT_COL_THERMOGRAPH = 12;        // M - Thermograph
+    static final int TGT_COL_TOTAL_CASES_PALLET = 13; // N - Total cases per pallet
+    static final int TGT_COL_PALLETS = 14;            // O - Pallets
+
+    // 目标文件数据起始行（从第15行开始，索引14）
+    static final int TARGET_START_ROW = 14;
+
+    // 在 ExcelDataExtractor 类中添加以下内容：
+
+    /**
+     * 日志输出回调接口
+     */
+    public interface LogCallback {
+        void logMessage(String message);
+
+        void logError(String message);
+
+        /**
+         * 按级别输出日志，默认 ERROR 走 logError，其他级别走 logMessage
+         */
+        default void log(LogLevel level, String message) {
+            if (level == LogLevel.ERROR) {
+                logError(message);
+            } else {
+                logMessage(message);
+            }
+        }
+    }
+
+    /**
+     * 单个文件的处理结果
+     */
+    public static final class FileResult {
+        private final String fileName;
+        private final boolean success;
+        private final boolean skipped;
+        private final int rowCount;
+        private final long elapsedNanos;
+        private final String errorMessage;
+
+        private FileResult(String fileName, boolean success, boolean skipped, int rowCount, long elapsedNanos,
+                           String errorMessage) {
+            this.fileName = fileName;
+            this.success = success;
+            this.skipped = skipped;
+            this.rowCount = rowCount;
+            this.elapsedNanos = elapsedNanos;
+            this.errorMessage = errorMessage;
+        }
+
+        static FileResult succeeded(String fileName, long elapsedNanos, int rowCount) {
+            return new FileResult(fileName, true, false, rowCount, elapsedNanos, null);
+        }
+
+        static FileResult failed(String fileName, long elapsedNanos, String errorMessage) {
+            return new FileResult(fileName, false, false, 0, elapsedNanos, errorMessage);
+        }
+
+        static FileResult skipped(String fileName) {
+            return new FileResult(fileName, true, true, 0, 0L, null);
+        }
+
+        public String getFileName() {
+            return fileName;
+        }
+
+        public boolean isSuccess() {
+            return success;
+        }
+
+        /**
+         * 增量模式下因未变化而跳过
+         */
+        public boolean isSkipped() {
+            return skipped;
+        }
+
+        public int getRowCount() {
+            return rowCount;
+        }
+
+        public long getElapsedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        }
+
+        long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public String getErrorMessage() {
+            return errorMessage;
+        }
+    }
+
+    /**
+     * 缓存日志的回调，用于并行处理时按文件顺序回放日志
+     */
+    static final class BufferedLogCallback implements LogCallback {
+        private final List<LogLevel> levels = new ArrayList<>();
+        private final List<String> messages = new ArrayList<>();
+
+        @Override
+        public void logMessage(String message) {
+            log(LogLevel.INFO, message);
+        }
+
+        @Override
+        public void logError(String message) {
+            log(LogLevel.ERROR, message);
+        }
+
+        @Override
+        public synchronized void log(LogLevel level, String message) {
+            levels.add(level);
+            messages.add(message);
+        }
+
+        synchronized void replayTo(LogCallback target) {
+            for (int i = 0; i < messages.size(); i++) {
+                target.log(levels.get(i), messages.get(i));
+            }
+            levels.clear();
+            messages.clear();
+        }
+    }
+
+    /**
+     * 执行数据提取和转换的主要方法（使用默认并行度）
+     *
+     * @param templateFilePath 模板文件路径
+     * @param sourceDirPath    源文件目录路径
+     * @param outputDirPath    输出目录路径
+     * @param logCallback      日志回调接口
+     */
+    public static void executeDataExtraction(String templateFilePath, String sourceDirPath,
+                                             String outputDirPath, LogCallback logCallback) {
+        executeDataExtraction(templateFilePath, sourceDirPath, outputDirPath, ExtractionOptions.defaults(), logCallback);
+    }
+
+    /**
+     * 执行数据提取和转换的主要方法
+     *
+     * @param templateFilePath 模板文件路径
+     * @param sourceDirPath    源文件目录路径
+     * @param outputDirPath    输出目录路径
+     * @param parallelism      并行处理的文件数（1 表示顺序处理）
+     * @param logCallback      日志回调接口
+     * @return 每个文件的处理结果（按文件名排序），源目录无效时返回空列表
+     */
+    public static List<FileResult> executeDataExtraction(String templateFilePath, String sourceDirPath,
+                                                         String outputDirPath, int parallelism,
+                                                         LogCallback logCallback) {
+        return executeDataExtraction(templateFilePath, sourceDirPath, outputDirPath,
+                ExtractionOptions.defaults().setParallelism(parallelism), logCallback);
+    }
+
+    /**
+     * 执行数据提取和转换的主要方法
+     *
+     * @param templateFilePath 模板文件路径
+     * @param sourceDirPath    源文件目录路径
+     * @param outputDirPath    输出目录路径
+     * @param options          运行参数（并行度、写出模式等）
+     * @param logCallback      日志回调接口
+     * @return 每个文件的处理结果（按文件名排序），源目录无效时返回空列表
+     */
+    public static List<FileResult> executeDataExtraction(String templateFilePath, String sourceDirPath,
+                                                         String outputDirPath, ExtractionOptions options,
+                                                         LogCallback logCallback) {
+        // 整个任务的日志经异步缓冲后转发给调用方，任务结束前全部输出
+        try (AsyncLogCallback asyncLog = new AsyncLogCallback(logCallback)) {
+            JobContext context = new JobContext(asyncLog, options.getLogLevel());
+            return executeDataExtraction(templateFilePath, sourceDirPath, outputDirPath, options, context);
+        }
+    }
+
+    private static List<FileResult> executeDataExtraction(String templateFilePath, String sourceDirPath,
+                                                          String outputDirPath, ExtractionOptions options,
+                                                          JobContext context) {
+        try {
+            context.info("=== Excel数据迁移工具 ===");
+            context.info("模板文件: " + templateFilePath);
+            context.info("源文件目录: " + sourceDirPath);
+            context.info("输出目录: " + outputDirPath);
+
+            // 加载并校验模板（整个批次只读取和校验一次，后续文件从缓存的字节生成副本）
+            try {
+                TemplateCache.get(templateFilePath);
+            } catch (IOException e) {
+                context.error("加载模板失败: " + e.getMessage());
+                return Collections.emptyList();
+            }
+
+            // 编译列映射（同样只加载一次）
+            try {
+                ColumnMapping mapping = ColumnMapping.get(options.getColumnMapping());
+                if (mapping.getLocation() != null) {
+                    context.info("列映射: " + mapping.getLocation());
+                }
+            } catch (IOException e) {
+                context.error("加载列映射失败: " + e.getMessage());
+                return Collections.emptyList();
+            }
+
+            // 在创建输出目录时确保路径格式正确
+            File outputDir = new File(outputDirPath);
+            if (!outputDir.exists()) {
+                outputDir.mkdirs();
+            }
+
+            // 获取源目录中的所有Excel文件
+            File sourceDir = new File(sourceDirPath);
+            if (!sourceDir.exists() || !sourceDir.isDirectory()) {
+                context.error("源目录不存在或不是目录: " + sourceDirPath);
+                return Collections.emptyList();
+            }
+
+            File[] sourceFiles = listSourceFiles(sourceDir);
+            if (sourceFiles.length == 0) {
+                context.info("源目录中没有找到Excel文件");
+                return Collections.emptyList();
+            }
+            context.info("找到 " + sourceFiles.length + " 个Excel文件");
+
+            List<FileResult> results = processFiles(sourceFiles, templateFilePath, outputDir, options, context);
+            context.info("\n所有文件处理完成！");
+            return results;
+
+        } catch (Exception e) {
+            context.error("处理过程中发生错误: " + e.getMessage());
+            e.printStackTrace();
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * 处理指定的一组源文件（监视模式等只处理部分文件的场景）
+     *
+     * @param templateFilePath 模板文件路径
+     * @param sourceFiles      要处理的源文件
+     * @param outputDirPath    输出目录路径
+     * @param options          运行参数
+     * @param logCallback      日志回调接口
+     * @return 每个文件的处理结果（按文件名排序）
+     */
+    static List<FileResult> executeDataExtraction(String templateFilePath, List<File> sourceFiles,
+                                                  String outputDirPath, ExtractionOptions options,
+                                                  LogCallback logCallback) {
+        try (AsyncLogCallback asyncLog = new AsyncLogCallback(logCallback)) {
+            JobContext context = new JobContext(asyncLog, options.getLogLevel());
+            try {
+                TemplateCache.get(templateFilePath);
+                ColumnMapping.get(options.getColumnMapping());
+            } catch (IOException e) {
+                context.error("加载模板或列映射失败: " + e.getMessage());
+                return Collections.emptyList();
+            }
+            File outputDir = new File(outputDirPath);
+            if (!outputDir.exists()) {
+                outputDir.mkdirs();
+            }
+            File[] files = sourceFiles.toArray(new File[0]);
+            Arrays.sort(files, Comparator.comparing(File::getName));
+            return processFiles(files, templateFilePath, outputDir, options, context);
+        } catch (Exception e) {
+            logCallback.logError("处理过程中发生错误: " + e.getMessage());
+            e.printStackTrace();
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * 处理一批源文件：增量检查、顺序或并行处理、更新清单并输出汇总
+     */
+    private static List<FileResult> processFiles(File[] sourceFiles, String templateFilePath, File outputDir,
+                                                 ExtractionOptions options, JobContext context)
+            throws IOException, InterruptedException {
+        long batchStart = System.nanoTime();
+        RunMetrics run = new RunMetrics();
+
+        // 合并模式：所有文件合并输出到一个工作簿，总是重新生成
+        if (options.getConsolidatedOutput() != null) {
+            if (options.isIncremental()) {
+                context.info("合并模式下忽略增量设置，所有文件都会重新提取");
+            }
+            if (options.isPipelined()) {
+                context.info("合并模式下忽略流水线设置");
+            }
+            int workers = Math.max(1, Math.min(options.getParallelism(), sourceFiles.length));
+            List<FileResult> results = ConsolidatedExtraction.run(sourceFiles, templateFilePath, outputDir,
+                    options, workers, run, context);
+            logBatchSummary(results, workers, System.nanoTime() - batchStart, context);
+            finishRun(run, results, outputDir, options, workers, context);
+            return results;
+        }
+
+        // 增量模式：跳过内容、模板和输出设置都没有变化、且输出文件仍存在的源文件
+        IncrementalManifest manifest = null;
+        Map<String, IncrementalManifest.Check> sourceChecks = new HashMap<>();
+        List<FileResult> results = new ArrayList<>();
+        if (options.isIncremental()) {
+            manifest = IncrementalManifest.load(outputDir, TemplateCache.get(templateFilePath).getHash(),
+                    IncrementalManifest.optionsHash(options, ColumnMapping.get(options.getColumnMapping())));
+            if (manifest.isTemplateChanged()) {
+                context.info("增量模式: 模板已变化或首次运行，重新生成所有文件");
+            } else if (manifest.isOptionsChanged()) {
+                context.info("增量模式: 计算列、汇总表或列映射设置已变化，重新生成所有文件");
+            }
+            List<File> pending = new ArrayList<>();
+            for (File sourceFile : sourceFiles) {
+                try {
+                    IncrementalManifest.Check check = manifest.check(sourceFile, outputFileFor(outputDir, sourceFile));
+                    if (check.upToDate()) {
+                        results.add(FileResult.skipped(sourceFile.getName()));
+                        continue;
+                    }
+                    sourceChecks.put(sourceFile.getName(), check);
+                } catch (IOException e) {
+                    context.warn("无法读取文件 " + sourceFile.getName() + " 的哈希: " + e.getMessage());
+                }
+                pending.add(sourceFile);
+            }
+            context.info("增量模式: " + pending.size() + " 个文件需要处理, "
+                    + (sourceFiles.length - pending.size()) + " 个文件未变化");
+            sourceFiles = pending.toArray(new File[0]);
+        }
+
+        int workers = Math.max(1, Math.min(options.getParallelism(), sourceFiles.length));
+        if (options.isPipelined()) {
+            // 流水线模式：每个阶段一个线程，文件之间重叠执行
+            if (workers > 1) {
+                context.info("流水线模式下忽略并行度设置");
+            }
+            if (options.isIntraFileParallel()) {
+                context.info("流水线模式下忽略文件内并行设置");
+            }
+            workers = 1;
+            if (sourceFiles.length > 0) {
+                results.addAll(PipelinedExtraction.run(sourceFiles, templateFilePath, outputDir, options, run,
+                        context));
+            }
+        } else if (sourceFiles.length > 0) {
+            results.addAll(workers == 1
+                    ? runSequential(sourceFiles, templateFilePath, outputDir, options, run, context)
+                    : runParallel(sourceFiles, templateFilePath, outputDir, options, workers, run, context));
+        }
+
+        if (manifest != null) {
+            for (File sourceFile : sourceFiles) {
+                IncrementalManifest.Check check = sourceChecks.get(sourceFile.getName());
+                if (check != null && isSucceeded(results, sourceFile.getName())) {
+                    manifest.record(sourceFile, check, outputFileFor(outputDir, sourceFile));
+                }
+            }
+            manifest.save();
+        }
+        results.sort(Comparator.comparing(FileResult::getFileName));
+
+        logBatchSummary(results, workers, System.nanoTime() - batchStart, context);
+        finishRun(run, results, outputDir, options, workers, context);
+        return results;
+    }
+
+    /**
+     * 批处理结束：写出运行报告并累加 JMX 指标。报告写出失败不影响处理结果
+     */
+    private static void finishRun(RunMetrics run, List<FileResult> results, File outputDir,
+                                  ExtractionOptions options, int workers, JobContext context) {
+        run.finish();
+        File reportFile = null;
+        if (options.isRunReport()) {
+            reportFile = new File(outputDir, RunMetrics.REPORT_FILE_NAME);
+            try {
+                run.writeReport(reportFile, results, options, workers);
+            } catch (IOException e) {
+                context.warn("写入运行报告失败: " + e.getMessage());
+                reportFile = null;
+            }
+        }
+        PipelineMetrics.get().recordRun(run, results, reportFile);
+    }
+
+    /**
+     * 默认并行度：系统属性 pltools.parallelism，未设置时为1（顺序处理）。
+     * 并行时每个工作线程各持有一个工作簿，且日志要等文件处理完才输出，因此需要显式开启
+     */
+    public static int defaultParallelism() {
+        return Math.max(1, Integer.getInteger(PARALLELISM_PROPERTY, 1));
+    }
+
+    /**
+     * 列出源目录中的Excel文件（按文件名排序，保证处理顺序和汇总输出确定）
+     */
+    static File[] listSourceFiles(File sourceDir) {
+        File[] sourceFiles = sourceDir.listFiles((dir, name) ->
+                name.toLowerCase().endsWith(".xlsx") && !name.startsWith("~$"));
+        if (sourceFiles == null) {
+            return new File[0];
+        }
+        Arrays.sort(sourceFiles, Comparator.comparing(File::getName));
+        return sourceFiles;
+    }
+
+    /**
+     * 源文件对应的输出文件（与源文件同名）
+     */
+    static File outputFileFor(File outputDir, File sourceFile) {
+        return new File(outputDir, sourceFile.getName());
+    }
+
+    private static boolean isSucceeded(List<FileResult> results, String fileName) {
+        for (FileResult result : results) {
+            if (result.getFileName().equals(fileName)) {
+                return result.isSuccess() && !result.isSkipped();
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 顺序处理所有文件，日志实时输出
+     */
+    private static List<FileResult> runSequential(File[] sourceFiles, String templateFilePath, File outputDir,
+                                                  ExtractionOptions options, RunMetrics run, JobContext context) {
+        List<FileResult> results = new ArrayList<>(sourceFiles.length);
+        for (int i = 0; i < sourceFiles.length; i++) {
+            results.add(processFile(sourceFiles[i], i, sourceFiles.length, templateFilePath, outputDir,
+                    options, context.withMetrics(run.newFile(sourceFiles[i].getName()))));
+        }
+        return results;
+    }
+
+    /**
+     * 使用固定大小的工作线程池并行处理文件。
+     * 每个文件的日志先缓存在各自的缓冲区中，再按文件顺序输出，保证日志不交错且顺序确定。
+     */
+    private static List<FileResult> runParallel(File[] sourceFiles, String templateFilePath, File outputDir,
+                                                ExtractionOptions options, int workers, RunMetrics run,
+                                                JobContext context) throws InterruptedException {
+        context.info("并行处理，工作线程数: " + workers);
+
+        ExecutorService pool = newWorkerPool(workers, sourceFiles.length);
+
+        try {
+            List<BufferedLogCallback> buffers = new ArrayList<>(sourceFiles.length);
+            List<Future<FileResult>> futures = new ArrayList<>(sourceFiles.length);
+            for (int i = 0; i < sourceFiles.length; i++) {
+                File sourceFile = sourceFiles[i];
+                int index = i;
+                BufferedLogCallback buffer = new BufferedLogCallback();
+                buffers.add(buffer);
+                JobContext fileContext = context.withLog(buffer).withMetrics(run.newFile(sourceFile.getName()));
+                futures.add(pool.submit(() -> processFile(sourceFile, index, sourceFiles.length,
+                        templateFilePath, outputDir, options, fileContext)));
+            }
+
+            List<FileResult> results = new ArrayList<>(sourceFiles.length);
+            for (int i = 0; i < futures.size(); i++) {
+                FileResult result;
+                try {
+                    result = futures.get(i).get();
+                } catch (ExecutionException e) {
+                    // processFile 自身会捕获异常，这里只处理 Error 等未预期的情况
+                    result = FileResult.failed(sourceFiles[i].getName(), 0L, String.valueOf(e.getCause()));
+                }
+                buffers.get(i).replayTo(context.getLog());
+                results.add(result);
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * 创建固定大小的工作线程池（守护线程 pl-worker-N），队列容量为 taskCount
+     */
+    static ExecutorService newWorkerPool(int workers, int taskCount) {
+        AtomicInteger threadCounter = new AtomicInteger();
+        return new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, taskCount)), runnable -> {
+            Thread thread = new Thread(runnable, "pl-worker-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 处理单个源文件：提取 → 汇总 → 写入模板。
+     * 所有异常都在这里捕获并记录到结果中，单个文件失败不会影响其他文件。
+     */
+    static FileResult processFile(File sourceFile, int index, int total, String templateFilePath,
+                                  File outputDir, ExtractionOptions options, JobContext context) {
+        long start = System.nanoTime();
+        FileMetrics metrics = context.getMetrics();
+        metrics.snapshotHeapBefore();
+        FileEvent fileEvent = new FileEvent();
+        fileEvent.begin();
+        File outputFile = outputFileFor(outputDir, sourceFile);
+        boolean success = false;
+        context.info("\n[" + (index + 1) + "/" + total + "] 处理文件: " + sourceFile.getName());
+
+        try {
+            String sourceFilePath = sourceFile.getAbsolutePath();
+            String outputFilePath = outputFile.getPath();
+            ColumnMapping mapping = ColumnMapping.get(options.getColumnMapping());
+
+            // 1. 从源文件提取数据
+            context.info("  1. 从源文件提取数据...");
+            List<DataRow> sourceData = new ArrayList<>();
+            StringDictionary dictionary = new StringDictionary();
+            if (options.isIntraFileParallel()) {
+                // 文件内并行：数据行分块并行转换，按源文件顺序合并
+                ForkJoinExtraction.extract(sourceFilePath, mapping, dictionary, context, sourceData::add);
+            } else {
+                extractDataFromSource(sourceFilePath, mapping, dictionary, context, sourceData::add);
+            }
+            context.info("     提取到 " + sourceData.size() + " 行数据");
+
+            // 2. 计算每个托盘的汇总信息和计算列
+            context.info("  2. 计算托盘汇总信息...");
+            long stageStart = metrics.begin();
+            PalletAggregation aggregation = PalletAggregation.of(sourceData, dictionary);
+            stageStart = metrics.record(Stage.AGGREGATION, stageStart);
+            ComputedColumns computed = ComputedColumns.compute(sourceData, aggregation::palletCases);
+            metrics.record(Stage.COMPUTED_COLUMNS, stageStart);
+            PalletAggregation summary = options.isSummarySheet() ? aggregation : null;
+
+            // 3. 将数据写入模板
+            context.info("  3. 将数据写入模板文件...");
+            if (options.isStreamingWrite()) {
+                writeDataToTemplateStreaming(sourceData, computed, summary, templateFilePath, outputFilePath,
+                        options.getRowAccessWindow(), mapping.getTarget(), options.getComputedColumnMode(), context);
+            } else {
+                writeDataToTemplate(sourceData, computed, summary, templateFilePath, outputFilePath,
+                        mapping.getTarget(), options.getComputedColumnMode(), context);
+            }
+
+            context.info("  处理完成！输出文件: " + outputFilePath);
+            success = true;
+            return FileResult.succeeded(sourceFile.getName(), System.nanoTime() - start, sourceData.size());
+
+        } catch (Exception e) {
+            context.error("  处理文件 " + sourceFile.getName() + " 时发生错误: " + e.getMessage());
+            e.printStackTrace();
+            return FileResult.failed(sourceFile.getName(), System.nanoTime() - start, e.getMessage());
+        } finally {
+            metrics.snapshotHeapAfter();
+            fileEvent.finish(sourceFile, success ? outputFile : null, metrics.getRows(), success);
+        }
+    }
+
+    /**
+     * 输出批处理汇总（按文件名顺序，与执行顺序无关）
+     */
+    private static void logBatchSummary(List<FileResult> results, int workers, long elapsedNanos,
+                                        JobContext context) {
+        int succeeded = 0;
+        int skipped = 0;
+        long totalRows = 0;
+        context.info("\n=== 处理汇总 ===");
+        for (int i = 0; i < results.size(); i++) {
+            FileResult result = results.get(i);
+            String prefix = "  [" + (i + 1) + "/" + results.size() + "] " + result.getFileName();
+            if (result.isSkipped()) {
+                // 未变化的文件只计数，不逐个列出
+                skipped++;
+            } else if (result.isSuccess()) {
+                succeeded++;
+                totalRows += result.getRowCount();
+                context.info(prefix + ": 成功, " + result.getRowCount() + " 行, "
+                        + result.getElapsedMillis() + " ms");
+            } else {
+                context.warn(prefix + ": 失败 - " + result.getErrorMessage());
+            }
+        }
+        context.info("  成功 " + succeeded + " 个, 失败 " + (results.size() - succeeded - skipped)
+                + " 个, 跳过 " + skipped + " 个, 共 " + totalRows + " 行, 工作线程 " + workers
+                + ", 总耗时 " + TimeUnit.NANOSECONDS.toMillis(elapsedNanos) + " ms");
+    }
+
+    /**
+     * 从源文件提取数据（跳过标题行）
+     */
+    public static List<DataRow> extractDataFromSource(String sourceFilePath) throws IOException {
+        List<DataRow> dataList = new ArrayList<>();
+        extractDataFromSource(sourceFilePath, dataList::add);
+        return dataList;
+    }
+
+    /**
+     * 流式提取源文件数据：逐行解析 sheet XML，每得到一个有效数据行就交给 sink，
+     * 不在内存中构建整个工作簿
+     */
+    public static void extractDataFromSource(String sourceFilePath, Consumer<DataRow> sink) throws IOException {
+        extractDataFromSource(sourceFilePath, JobContext.console(), sink);
+    }
+
+    static void extractDataFromSource(String sourceFilePath, JobContext context,
+                                      Consumer<DataRow> sink) throws IOException {
+        extractDataFromSource(sourceFilePath, new StringDictionary(), context, sink);
+    }
+
+    static void extractDataFromSource(String sourceFilePath, StringDictionary dictionary, JobContext context,
+                                      Consumer<DataRow> sink) throws IOException {
+        extractDataFromSource(sourceFilePath, ColumnMapping.defaults(), dictionary, context, sink);
+    }
+
+    /**
+     * 流式提取源文件数据，列布局按标题行从 mapping 中确定，重复的文本经 dictionary 共享同一个实例并分配编号
+     */
+    static void extractDataFromSource(String sourceFilePath, ColumnMapping mapping, StringDictionary dictionary,
+                                      JobContext context, Consumer<DataRow> sink) throws IOException {
+        FileMetrics metrics = context.getMetrics();
+        RowBatchSampler batches = new RowBatchSampler(metrics.getFileName(), "extract");
+        SourceLayout[] layout = new SourceLayout[1];
+        StreamingSheetReader.read(sourceFilePath, mapping.getHeaderRow(), header -> {
+            layout[0] = mapping.resolve(header, context);
+            return layout[0].columns();
+        }, metrics, (rowNum, values) -> {
+            // 跳过空行
+            if (values.isEmpty()) {
+                metrics.skippedEmptyRow();
+                return;
+            }
+
+            DataRow dataRow = extractRowData(values, layout[0], dictionary, context);
+            if (dataRow != null) {
+                metrics.addRows(1);
+                batches.row();
+                sink.accept(dataRow);
+            } else {
+                metrics.skippedRow();
+            }
+        });
+        batches.finish();
+    }
+
+    /**
+     * 基于完整工作簿（DOM）的提取实现，结果与流式提取一致，保留用于对照
+     */
+    static List<DataRow> extractDataFromSourceWorkbook(String sourceFilePath) throws IOException {
+        List<DataRow> dataList = new ArrayList<>();
+        StringDictionary dictionary = new StringDictionary();
+
+        try (Workbook workbook = SourcePackage.openWorkbook(sourceFilePath)) {
+
+            Sheet sheet = workbook.getSheetAt(0);
+            RowValues values = new RowValues();
+
+            // 按标题行确定列布局
+            ColumnMapping mapping = ColumnMapping.defaults();
+            Row headerRow = sheet.getRow(mapping.getHeaderRow());
+            values.clear();
+            if (headerRow != null) {
+                values.load(headerRow);
+            }
+            SourceLayout layout = mapping.resolve(values, JobContext.console());
+
+            for (int rowNum = mapping.getStartRow(); rowNum <= sheet.getLastRowNum(); rowNum++) {
+                Row row = sheet.getRow(rowNum);
+                if (row == null) continue;
+
+                // 跳过空行
+                values.load(row, layout.columns());
+                if (values.isEmpty()) continue;
+
+                // 提取数据
+                DataRow dataRow = extractRowData(values, layout, dictionary, JobContext.console());
+                if (dataRow != null) {
+                    dataList.add(dataRow);
+                }
+            }
+        }
+
+        return dataList;
+    }
+
+    /**
+     * 从单行提取数据。数量、净重和日期按单元格类型直接转换（数值单元格不经过文本），
+     * 其他列取文本形式，重复的文本经字典共享
+     *
+     * @param values     该行的类型化单元格值
+     * @param layout     当前文件的列布局
+     * @param dictionary 当前文件的字符串字典
+     */
+    static DataRow extractRowData(RowValues values, SourceLayout layout, StringDictionary dictionary,
+                                  JobContext context) {
+        try {
+            // 获取各个字段的值
+            String idPallet = values.get(layout.idPallet);
+
+            // 跳过没有托盘号的行
+            if (RowValues.isBlank(idPallet)) {
+                return null;
+            }
+
+            DataRow dataRow = new DataRow();
+            dataRow.palletId = dictionary.idOf(idPallet);
+            dataRow.idPallet = dictionary.valueOf(dataRow.palletId);
+            dataRow.label = dictionary.intern(values.get(layout.label));
+            dataRow.varietyId = dictionary.idOf(values.get(layout.variety));
+            dataRow.variety = dictionary.valueOf(dataRow.varietyId);
+            dataRow.sizeId = dictionary.idOf(values.get(layout.size));
+            dataRow.size = dictionary.valueOf(dataRow.sizeId);
+            dataRow.netWeight = parseNetWeight(values, layout.netWeight, context);
+            dataRow.quantity = parseQuantity(values, layout.quantity, context);
+            // csg值如果含有.00，去掉
+            dataRow.csg = dictionary.intern(values.get(layout.csg).replace(".00", ""));
+            dataRow.csp = dictionary.intern(values.get(layout.csp));
+            if (values.isDate(layout.packingDate)) {
+                dataRow.setPackingDay(values.epochDay(layout.packingDate));
+            } else {
+                dataRow.setPackingDate(dictionary.intern(values.get(layout.packingDate)));
+            }
+            dataRow.cat = dictionary.intern(values.get(layout.cat));
+            dataRow.tempRecorder = dictionary.intern(values.get(layout.tempRecorder));
+
+            return dataRow;
+
+        } catch (Exception e) {
+            context.error("提取行数据时出错: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 数量列：整数值的数值单元格（包括公式结果）直接取值，其他按文本解析
+     */
+    private static int parseQuantity(RowValues values, int col, JobContext context) {
+        if (values.isNumber(col)) {
+            double num = values.number(col);
+            // 与文本形式一致：只有小于一百万的整数才是不带小数的文本
+            if (num == Math.floor(num) && num < 1000000) {
+                return (int) num;
+            }
+        }
+        return parseQuantity(values.get(col), context);
+    }
+
+    /**
+     * 解析数量
+     */
+    private static int parseQuantity(String quantityStr, JobContext context) {
+        if (quantityStr == null || quantityStr.trim().isEmpty()) {
+            return 0;
+        }
+
+        try {
+            // 移除逗号和空格
+            quantityStr = quantityStr.replace(",", "").replace(" ", "");
+            return Integer.parseInt(quantityStr);
+        } catch (NumberFormatException e) {
+            context.getMetrics().parseError();
+            context.error("解析数量失败: " + quantityStr);
+            return 0;
+        }
+    }
+
+    /**
+     * 净重列：数值单元格直接取值（普通数值按文本形式的两位小数取整），其他按文本解析
+     */
+    private static double parseNetWeight(RowValues values, int col, JobContext context) {
+        if (values.isNumber(col)) {
+            double num = values.number(col);
+            return values.isFormula(col) ? num : roundNumericValue(num);
+        }
+        return parseNetWeight(values.get(col), context);
+    }
+
+    /**
+     * 解析净重
+     */
+    private static double parseNetWeight(String weightStr, JobContext context) {
+        if (weightStr == null || weightStr.trim().isEmpty()) {
+            return 0.0;
+        }
+
+        try {
+            // 替换逗号为点，并解析
+            weightStr = weightStr.replace(',', '.').replace(" ", "");
+            return Double.parseDouble(weightStr);
+        } catch (NumberFormatException e) {
+            context.getMetrics().parseError();
+            context.error("解析净重失败: " + weightStr);
+            return 0.0;
+        }
+    }
+
+    /**
+     * 将数据写入模板文件
+     */
+    public static void writeDataToTemplate(List<DataRow> dataList,
+                                           Map<String, Integer> palletTotals,
+                                           String templatePath, String outputPath,
+                                           LogCallback logCallback) throws IOException {
+        writeDataToTemplate(dataList, computeColumns(dataList, palletTotals), null, templatePath, outputPath,
+                TargetLayout.DEFAULT, ComputedColumnMode.FORMULAS, new JobContext(logCallback, LogLevel.INFO));
+    }
+
+    /**
+     * @param summary 不为 null 时在输出文件中追加汇总工作表
+     * @param target  各字段写入的列
+     */
+    static void writeDataToTemplate(List<DataRow> dataList, ComputedColumns computed, PalletAggregation summary,
+                                    String templatePath, String outputPath, TargetLayout target,
+                                    ComputedColumnMode mode, JobContext context) throws IOException {
+        FileMetrics metrics = context.getMetrics();
+        long stageStart = metrics.begin();
+        // 从模板缓存获取模板副本
+        try (XSSFWorkbook workbook = TemplateCache.get(templatePath).newWorkbook();
+             FileOutputStream fos = new FileOutputStream(outputPath)) {
+
+            stageStart = metrics.record(Stage.TEMPLATE_LOAD, stageStart);
+            Sheet sheet = workbook.getSheetAt(0);
+
+            // 各列样式（模板行和数据行共用，同一规格只创建一次）
+            CellStyle[] columnStyles = createColumnStyles(new CellStyleRegistry(workbook), target);
+
+            // 1. 确保第15行存在并设置正确的样式
+            context.debug("   准备第15行模板样式...");
+            Row templateRow = ensureTemplateRowExists(sheet, TARGET_START_ROW, columnStyles);
+
+            // 计算需要清空的行数（根据实际数据量）
+            int dataRowCount = dataList.size();
+            clearDataArea(sheet, TARGET_START_ROW, TARGET_START_ROW + dataRowCount - 1, target.lastColumn);
+
+
+            // 3. 开始填充数据
+            context.debug("   填充数据...");
+
+            RowBatchSampler batches = new RowBatchSampler(metrics.getFileName(), "fill");
+            for (int i = 0; i < dataList.size(); i++) {
+                DataRow data = dataList.get(i);
+                int currentRowNum = TARGET_START_ROW + i;
+
+                Row row;
+                if (i == 0) {
+                    // 第一行使用模板行
+                    row = templateRow;
+                } else {
+                    // 创建新行
+                    row = createStyledRow(sheet, currentRowNum, templateRow.getHeight(), columnStyles);
+                }
+
+                // 填充数据（计算列已预先算好）
+                fillRowData(row, data, computed.totalNetWeight(i), computed.palletCases(i), computed.pallets(i),
+                        currentRowNum + 1, target, columnStyles, mode, context); // Excel行号从1开始
+                batches.row();
+
+                // 显示进度
+                if (context.isDebugEnabled() && ((i + 1) % PROGRESS_INTERVAL == 0 || i == dataList.size() - 1)) {
+                    context.debug("   已填充 " + (i + 1) + "/" + dataList.size() + " 行");
+                }
+            }
+            batches.finish();
+
+            // 在第12行(索引11)填充汇总数据
+            writeSummaryRow(sheet, computed.getTotalCases(), computed.getTotalNetKg(), computed.getTotalPallets(),
+                    context);
+            if (summary != null) {
+                SummarySheetWriter.write(workbook, summary);
+            }
+            stageStart = metrics.record(Stage.FILL, stageStart);
+
+            // 保存工作簿
+            workbook.write(fos);
+            metrics.record(Stage.WRITE, stageStart, fos.getChannel().position());
+            context.debug("   数据填充完成！");
+
+        } catch (FileNotFoundException e) {
+            context.error("模板文件未找到: " + templatePath);
+            throw e;
+        }
+    }
+
+    /**
+     * 以流式方式（SXSSF）将数据写入模板文件。
+     * <p>
+     * 模板的第1-14行（含第12行汇总行）和列样式保留在 XSSF 工作簿中，
+     * 数据行通过 SXSSF 写出，内存中只保留最近 rowAccessWindow 行，其余行刷到临时文件，
+     * 因此堆内存占用与数据行数无关。模板中第15行及以后的内容不会保留。
+     */
+    public static void writeDataToTemplateStreaming(List<DataRow> dataList,
+                                                    Map<String, Integer> palletTotals,
+                                                    String templatePath, String outputPath,
+                                                    int rowAccessWindow,
+                                                    LogCallback logCallback) throws IOException {
+        writeDataToTemplateStreaming(dataList, computeColumns(dataList, palletTotals), null, templatePath,
+                outputPath, rowAccessWindow, TargetLayout.DEFAULT, ComputedColumnMode.FORMULAS,
+                new JobContext(logCallback, LogLevel.INFO));
+    }
+
+    static void writeDataToTemplateStreaming(List<DataRow> dataList, ComputedColumns computed,
+                                             PalletAggregation summary, String templatePath, String outputPath, int rowAccessWindow,
+                                             TargetLayout target, ComputedColumnMode mode, JobContext context)
+            throws IOException {
+        writeRowsStreaming(new RowFeed() {
+            @Override
+            public int size() {
+                return dataList.size();
+            }
+
+            @Override
+            public void forEach(RowSink sink) {
+                for (int i = 0; i < dataList.size(); i++) {
+                    sink.accept(dataList.get(i), computed.totalNetWeight(i), computed.palletCases(i),
+                            computed.pallets(i));
+                }
+            }
+        }, summary, templatePath, outputPath, rowAccessWindow, target, mode, context);
+    }
+
+    /**
+     * 流式写出 feed 提供的数据行，第12行的汇总在写出时逐行累加，不需要预先知道所有行
+     */
+    static void writeRowsStreaming(RowFeed feed, PalletAggregation summary, String templatePath, String outputPath,
+                                   int rowAccessWindow, TargetLayout target, ComputedColumnMode mode,
+                                   JobContext context) throws IOException {
+        FileMetrics metrics = context.getMetrics();
+        long stageStart = metrics.begin();
+        try (XSSFWorkbook template = TemplateCache.get(templatePath).newWorkbook()) {
+
+            stageStart = metrics.record(Stage.TEMPLATE_LOAD, stageStart);
+            XSSFSheet templateSheet = template.getSheetAt(0);
+
+            // 记录第15行行高，然后移除数据区域的模板行（SXSSF 只能在已有行之后追加新行）
+            Row templateRow = templateSheet.getRow(TARGET_START_ROW);
+            short rowHeight = templateRow != null ? templateRow.getHeight() : templateSheet.getDefaultRowHeight();
+            for (int rowNum = templateSheet.getLastRowNum(); rowNum >= TARGET_START_ROW; rowNum--) {
+                Row row = templateSheet.getRow(rowNum);
+                if (row != null) {
+                    templateSheet.removeRow(row);
+                }
+            }
+
+            CellStyle[] columnStyles = createColumnStyles(new CellStyleRegistry(template), target);
+            if (summary != null) {
+                // 汇总工作表行数很少，在包装为 SXSSF 之前直接写在 XSSF 工作簿中
+                SummarySheetWriter.write(template, summary);
+            }
+
+            SXSSFWorkbook workbook = new SXSSFWorkbook(template, rowAccessWindow);
+            try (FileOutputStream fos = new FileOutputStream(outputPath)) {
+                context.debug("   流式填充数据...");
+                StreamingRowSink sink = new StreamingRowSink(workbook.getSheetAt(0), rowHeight, target,
+                        columnStyles, feed.size(), mode, context);
+                feed.forEach(sink);
+                sink.batches.finish();
+
+                // 汇总行属于模板部分，写在 XSSF 工作表上
+                writeSummaryRow(templateSheet, sink.totalCases, sink.totalNetKg, sink.totalPallets, context);
+                stageStart = metrics.record(Stage.FILL, stageStart);
+
+                workbook.write(fos);
+                context.debug("   数据填充完成！");
+            } finally {
+                // 删除 SXSSF 产生的临时文件
+                workbook.dispose();
+                metrics.record(Stage.WRITE, stageStart, new File(outputPath).length());
+            }
+
+        } catch (FileNotFoundException e) {
+            context.error("模板文件未找到: " + templatePath);
+            throw e;
+        }
+    }
+
+    /**
+     * 按行号顺序提供流式写出的数据行及其计算列
+     */
+    interface RowFeed {
+        /**
+         * 行数（用于进度日志）
+         */
+        int size();
+
+        /**
+         * 依次把每一行交给 sink
+         */
+        void forEach(RowSink sink) throws IOException;
+    }
+
+    /**
+     * 接收一行数据及其计算列
+     */
+    interface RowSink {
+        void accept(DataRow data, double totalNetWeight, int palletCases, double pallets);
+    }
+
+    /**
+     * 把数据行依次追加到 SXSSF 工作表，同时累加第12行的汇总（累加顺序与 ComputedColumns 相同）
+     */
+    private static final class StreamingRowSink implements RowSink {
+        private final Sheet sheet;
+        private final short rowHeight;
+        private final TargetLayout target;
+        private final CellStyle[] columnStyles;
+        private final int size;
+        private final ComputedColumnMode mode;
+        private final JobContext context;
+        private final RowBatchSampler batches;
+        private int count;
+        private double totalCases;
+        private double totalNetKg;
+        private double totalPallets;
+
+        StreamingRowSink(Sheet sheet, short rowHeight, TargetLayout target, CellStyle[] columnStyles, int size,
+                         ComputedColumnMode mode, JobContext context) {
+            this.sheet = sheet;
+            this.rowHeight = rowHeight;
+            this.target = target;
+            this.columnStyles = columnStyles;
+            this.size = size;
+            this.mode = mode;
+            this.context = context;
+            this.batches = new RowBatchSampler(context.getMetrics().getFileName(), "fill");
+        }
+
+        @Override
+        public void accept(DataRow data, double totalNetWeight, int palletCases, double pallets) {
+            int currentRowNum = TARGET_START_ROW + count;
+            Row row = createStyledRow(sheet, currentRowNum, rowHeight, columnStyles);
+            fillRowData(row, data, totalNetWeight, palletCases, pallets, currentRowNum + 1, target, columnStyles,
+                    mode, context);
+            batches.row();
+            count++;
+
+            totalCases += data.quantity;
+            totalNetKg += totalNetWeight;
+            totalPallets += pallets;
+
+            if (context.isDebugEnabled() && (count % PROGRESS_INTERVAL == 0 || count == size)) {
+                context.debug("   已填充 " + count + "/" + size + " 行");
+            }
+        }
+    }
+
+    /**
+     * 按调用方给出的托盘总箱数计算计算列
+     */
+    private static ComputedColumns computeColumns(List<DataRow> dataList, Map<String, Integer> palletTotals) {
+        return ComputedColumns.compute(dataList, row -> palletTotals.getOrDefault(row.idPallet, 0));
+    }
+
+    /**
+     * 获取各列使用的样式（按列索引，覆盖 0 到 lastColumn 的所有列）
+     */
+    private static CellStyle[] createColumnStyles(CellStyleRegistry styles, TargetLayout target) {
+        CellStyle textStyle = styles.get(CellStyleRegistry.TEXT);  // 文本样式，用于B、I、J、N列
+        CellStyle numberStyle = styles.get(CellStyleRegistry.NUMBER); // 数字样式，用于F、H列
+        CellStyle integerStyle = styles.get(CellStyleRegistry.INTEGER); // 整数样式，用于G列
+        CellStyle fourDecimalStyle = styles.get(CellStyleRegistry.FOUR_DECIMAL); // 四位小数样式，用于O列
+        CellStyle centeredStyle = styles.get(CellStyleRegistry.CENTERED); // 居中样式，用于其他文本列
+
+        // 其他列：居中样式
+        CellStyle[] columnStyles = new CellStyle[target.lastColumn + 1];
+        Arrays.fill(columnStyles, centeredStyle);
+
+        // B、I、J、N列：文本样式
+        columnStyles[target.palletNo] = textStyle;
+        columnStyles[target.csgCode] = textStyle;
+        columnStyles[target.cspCode] = textStyle;
+        columnStyles[target.palletCases] = textStyle;
+        // F、H列：数字样式（两位小数）
+        columnStyles[target.netWeight] = numberStyle;
+        columnStyles[target.totalNetWeight] = numberStyle;
+        // G列：整数样式
+        columnStyles[target.cases] = integerStyle;
+        // O列：四位小数样式
+        columnStyles[target.pallets] = fourDecimalStyle;
+        return columnStyles;
+    }
+
+    /**
+     * 创建数据行，复制模板行高并为每个单元格应用列样式
+     */
+    private static Row createStyledRow(Sheet sheet, int rowNum, short height, CellStyle[] columnStyles) {
+        Row row = sheet.createRow(rowNum);
+
+        // 复制行高
+        row.setHeight(height);
+
+        // 为每个单元格应用样式
+        for (int col = 0; col < columnStyles.length; col++) {
+            row.createCell(col).setCellStyle(columnStyles[col]);
+        }
+        return row;
+    }
+
+    /**
+     * 在第12行(索引11)的 M、N、O 列填充 Cases、Net Kg、Pallets 汇总
+     */
+    private static void writeSummaryRow(Sheet sheet, double totalCases, double totalNetKg, double totalPallets,
+                                        JobContext context) {
+        Row summaryRow = sheet.getRow(11); // 第12行
+        if (summaryRow == null) {
+            summaryRow = sheet.createRow(11);
+        }
+
+        // M列: Cases总和
+        Cell casesSummaryCell = summaryRow.getCell(12); // M列
+        if (casesSummaryCell == null) {
+            casesSummaryCell = summaryRow.createCell(12);
+        }
+        casesSummaryCell.setCellValue(totalCases);
+        context.info("   M列: Cases总和 = " + totalCases);
+
+        // N列: Net Kg总和
+        Cell netKgSummaryCell = summaryRow.getCell(13); // N列
+        if (netKgSummaryCell == null) {
+            netKgSummaryCell = summaryRow.createCell(13);
+        }
+        netKgSummaryCell.setCellValue(totalNetKg);
+        context.info("   N列: Net Kg总和 = " + totalNetKg);
+
+        // O列: Pallets总和
+        Cell palletsSummaryCell = summaryRow.getCell(14); // O列
+        if (palletsSummaryCell == null) {
+            palletsSummaryCell = summaryRow.createCell(14);
+        }
+        palletsSummaryCell.setCellValue(totalPallets);
+        context.info("   O列: Pallets总和 = " + totalPallets);
+    }
+
+    /**
+     * 确保模板行存在并设置正确的样式
+     */
+    private static Row ensureTemplateRowExists(Sheet sheet, int rowIndex, CellStyle[] columnStyles) {
+        Row row = sheet.getRow(rowIndex);
+        if (row == null) {
+            row = sheet.createRow(rowIndex);
+        }
+
+        // 为所有单元格应用列样式
+        for (int col = 0; col < columnStyles.length; col++) {
+            Cell cell = row.getCell(col);
+            if (cell == null) {
+                cell = row.createCell(col);
+            }
+            cell.setCellStyle(columnStyles[col]);
+        }
+
+        return row;
+    }
+
+    /**
+     * 清空数据区域（指定范围）
+     */
+    private static void clearDataArea(Sheet sheet, int startRow, int endRow, int lastColumn) {
+        // 只清空从startRow到endRow的行
+        for (int rowNum = startRow; rowNum <= Math.min(endRow, sheet.getLastRowNum()); rowNum++) {
+            Row row = sheet.getRow(rowNum);
+            if (row != null) {
+                for (int col = 0; col <= lastColumn; col++) {
+                    Cell cell = row.getCell(col);
+                    if (cell != null) {
+                        cell.setCellValue("");
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 填充行数据
+     *
+     * @param totalNetWeight 预先算好的 H列 TOTAL N.W
+     * @param palletCases    预先算好的 N列 托盘总箱数
+     * @param pallets        预先算好的 O列 Pallets
+     * @param target         各字段写入的列
+     * @param columnStyles   按列索引的样式
+     * @param mode           计算列写入公式还是数值
+     */
+    private static void fillRowData(Row row, DataRow data, double totalNetWeight, int palletCases, double pallets,
+                                    int excelRowNum, TargetLayout target,
+                                    CellStyle[] columnStyles, ComputedColumnMode mode,
+                                    JobContext context) {
+        try {
+            // A列: Species（固定值"CEREZAS"）
+            setCellValue(row, target.species, "CEREZAS");
+
+            // B列: Pallet No.（文本类型）
+            Cell cellB = row.getCell(target.palletNo);
+            if (cellB == null) {
+                cellB = row.createCell(target.palletNo);
+                if (columnStyles[target.palletNo] != null) {
+                    cellB.setCellStyle(columnStyles[target.palletNo]);
+                }
+            }
+            // 设置文本类型的值（即使数字也按文本处理）
+            cellB.setCellValue(data.idPallet);
+
+            // C列: Brand
+            setCellValue(row, target.brand, data.label);
+
+            // D列: Variety
+            setCellValue(row, target.variety, data.variety);
+
+            // E列: Size
+            setCellValue(row, target.size, data.size);
+
+            // F列: N.W (数值，两位小数)
+            setNumericCellValue(row, target.netWeight, data.netWeight);
+
+            // G列: CASES (整数，不要.00后缀)
+            Cell cellG = row.getCell(target.cases);
+            if (cellG == null) {
+                cellG = row.createCell(target.cases);
+                if (columnStyles[target.cases] != null) {
+                    cellG.setCellStyle(columnStyles[target.cases]);
+                }
+            }
+            cellG.setCellValue(data.quantity);
+
+            // H列: TOTAL N.W (F列 * G列)
+            Cell cellH = row.getCell(target.totalNetWeight);
+            if (cellH == null) {
+                cellH = row.createCell(target.totalNetWeight);
+                if (columnStyles[target.totalNetWeight] != null) {
+                    cellH.setCellStyle(columnStyles[target.totalNetWeight]);
+                }
+            }
+            if (mode == ComputedColumnMode.FORMULAS) {
+                cellH.setCellFormula(target.netWeightRef + excelRowNum + "*" + target.casesRef + excelRowNum);
+            }
+            // 公式模式下作为缓存值
+            cellH.setCellValue(totalNetWeight);
+
+            // I列: CSG Code（文本类型）
+            Cell cellI = row.getCell(target.csgCode);
+            if (cellI == null) {
+                cellI = row.createCell(target.csgCode);
+                if (columnStyles[target.csgCode] != null) {
+                    cellI.setCellStyle(columnStyles[target.csgCode]);
+                }
+            }
+            // 设置文本类型的值（.00 后缀在提取时已去掉）
+            cellI.setCellValue(data.csg);
+
+            // J列: CSP Code（文本类型）
+            Cell cellJ = row.getCell(target.cspCode);
+            if (cellJ == null) {
+                cellJ = row.createCell(target.cspCode);
+                if (columnStyles[target.cspCode] != null) {
+                    cellJ.setCellStyle(columnStyles[target.cspCode]);
+                }
+            }
+            // 设置文本类型的值
+            cellJ.setCellValue(data.csp);
+
+            // K列: Packing Date
+            setCellValue(row, target.packingDate, data.getPackingDateText());
+
+            // L列: Category
+            setCellValue(row, target.category, data.cat);
+
+            // M列: Thermograph
+            setCellValue(row, target.thermograph, data.tempRecorder);
+
+            // N列: Total cases per pallet (文本类型)
+            int totalCasesForPallet = palletCases;
+            Cell cellN = row.getCell(target.palletCases);
+            if (cellN == null) {
+                cellN = row.createCell(target.palletCases);
+                if (columnStyles[target.palletCases] != null) {
+                    cellN.setCellStyle(columnStyles[target.palletCases]);
+                }
+            }
+            // 设置文本类型的值
+            cellN.setCellValue(String.valueOf(totalCasesForPallet));
+
+            // O列: Pallets (G列 / N列，最多保留4位小数)
+            Cell cellO = row.getCell(target.pallets);
+            if (cellO == null) {
+                cellO = row.createCell(target.pallets);
+                if (columnStyles[target.pallets] != null) {
+                    cellO.setCellStyle(columnStyles[target.pallets]);
+                }
+            }
+
+            if (mode == ComputedColumnMode.FORMULAS) {
+                // 设置公式，注意处理除以零的情况
+                if (totalCasesForPallet != 0) {
+                    cellO.setCellFormula(target.casesRef + excelRowNum + "/" + target.palletCasesRef + excelRowNum);
+                } else {
+                    // 如果总数为0，设置一个简单的公式避免除以零错误
+                    cellO.setCellFormula("0");
+                }
+            }
+            cellO.setCellValue(pallets);
+
+            // 行级日志只在 DEBUG 级别拼接和输出
+            if (context.isDebugEnabled()) {
+                context.debug("   行" + excelRowNum + ": " + data.idPallet +
+                        " | 数量: " + data.quantity +
+                        " | 托盘总数: " + totalCasesForPallet);
+            }
+
+        } catch (Exception e) {
+            context.error("填充行数据时出错: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+
+    /**
+     * 设置单元格文本值
+     */
+    private static void setCellValue(Row row, int colIndex, String value) {
+        if (value == null) value = "";
+
+        Cell cell = row.getCell(colIndex);
+        if (cell == null) {
+            cell = row.createCell(colIndex);
+        }
+        cell.setCellValue(value);
+    }
+
+    /**
+     * 设置单元格数值
+     */
+    private static void setNumericCellValue(Row row, int colIndex, double value) {
+        Cell cell = row.getCell(colIndex);
+        if (cell == null) {
+            cell = row.createCell(colIndex);
+        }
+        cell.setCellValue(value);
+    }
+
+    /**
+     * 获取单元格的值（文本形式，规则与 RowValues.get 相同）
+     */
+    static String getCellValue(Cell cell) {
+        if (cell == null) {
+            return "";
+        }
+
+        switch (cell.getCellType()) {
+            case STRING:
+                return cell.getStringCellValue().trim();
+            case NUMERIC:
+                if (DateUtil.isCellDateFormatted(cell)) {
+                    return formatDateValue((int) cell.getLocalDateTimeCellValue().toLocalDate().toEpochDay());
+                } else {
+                    return formatNumericValue(cell.getNumericCellValue());
+                }
+            case BOOLEAN:
+                return String.valueOf(cell.getBooleanCellValue());
+            case FORMULA:
+                // 按缓存结果的类型取值，不依赖异常
+                switch (cell.getCachedFormulaResultType()) {
+                    case STRING:
+                        return cell.getStringCellValue();
+                    case NUMERIC:
+                        return String.valueOf(cell.getNumericCellValue());
+                    default:
+                        return cell.getCellFormula();
+                }
+            default:
+                return "";
+        }
+    }
+
+    /**
+     * 日期单元格的文本格式（yyyy-MM-dd）
+     */
+    static String formatDateValue(int epochDay) {
+        return DATE_FORMAT.format(LocalDate.ofEpochDay(epochDay));
+    }
+
+    /**
+     * 数值单元格的文本格式：小于一百万的整数不带小数，其他保留两位小数（四舍五入，小数点按默认区域设置）
+     */
+    static String formatNumericValue(double num) {
+        if (num == Math.floor(num) && num < 1000000) {
+            return String.valueOf((int) num);
+        }
+        if (!Double.isFinite(num)) {
+            return String.valueOf(num);
+        }
+        String text;
+        long cents = Math.round(num * 100);
+        if (Math.abs(num) < MAX_EXACT_CENTS && cents / 100.0 == num) {
+            // 本身最多两位小数：直接由分值拼出文本
+            long abs = Math.abs(cents);
+            long fraction = abs % 100;
+            text = (num < 0 ? "-" : "") + abs / 100 + (fraction < 10 ? ".0" : ".") + fraction;
+        } else {
+            // 与 %.2f 相同：按最短十进制表示四舍五入
+            BigDecimal rounded = BigDecimal.valueOf(num).setScale(2, RoundingMode.HALF_UP);
+            text = (num < 0 && rounded.signum() == 0 ? "-" : "") + rounded.toPlainString();
+        }
+        return DECIMAL_SEPARATOR == '.' ? text : text.replace('.', DECIMAL_SEPARATOR);
+    }
+
+    /**
+     * 数值按 formatNumericValue 的文本形式再解析得到的值（两位小数），避免先格式化再解析
+     */
+    static double roundNumericValue(double num) {
+        if (num == Math.floor(num) && num < 1000000) {
+            return (int) num;
+        }
+        if (!Double.isFinite(num)) {
+            return num;
+        }
+        long cents = Math.round(num * 100);
+        if (Math.abs(num) < MAX_EXACT_CENTS && cents / 100.0 == num) {
+            return num;
+        }
+        return BigDecimal.valueOf(num).setScale(2, RoundingMode.HALF_UP).doubleValue();
+    }
+
+    /**
+     * 检查行是否为空
+     */
+    static boolean isRowEmpty(Row row) {
+        if (row == null) {
+            return true;
+        }
+
+        // 只判断是否为空白，不格式化数值和日期
+        for (Cell cell : row) {
+            if (!RowValues.isBlank(cell)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
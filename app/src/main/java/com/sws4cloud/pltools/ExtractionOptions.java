@@ -0,0 +1,258 @@
+package com.sws4cloud.pltools;
+
+/**
+ * 数据提取任务的运行参数。
+ * <p>
+ * 默认值可以通过系统属性覆盖（例如 -Dpltools.streamingWrite=true），
+ * 便于在不修改界面的情况下调整批处理行为。
+ */
+public final class ExtractionOptions {
+
+    // 流式写出模式的系统属性名
+    public static final String STREAMING_WRITE_PROPERTY = "pltools.streamingWrite";
+
+    // 流式写出时内存中保留行数的系统属性名
+    public static final String ROW_WINDOW_PROPERTY = "pltools.rowWindow";
+
+    // 日志级别的系统属性名
+    public static final String LOG_LEVEL_PROPERTY = "pltools.logLevel";
+
+    // 增量模式的系统属性名
+    public static final String INCREMENTAL_PROPERTY = "pltools.incremental";
+
+    // 计算列写出方式的系统属性名（formulas 或 values）
+    public static final String COMPUTED_COLUMNS_PROPERTY = "pltools.computedColumns";
+
+    // 输出汇总工作表的系统属性名
+    public static final String SUMMARY_SHEET_PROPERTY = "pltools.summarySheet";
+
+    // 合并输出文件名的系统属性名（设置后进入合并模式）
+    public static final String CONSOLIDATED_OUTPUT_PROPERTY = "pltools.consolidatedOutput";
+
+    // 写出运行报告的系统属性名（默认写出，设为 false 关闭）
+    public static final String RUN_REPORT_PROPERTY = "pltools.runReport";
+
+    // 流水线模式的系统属性名
+    public static final String PIPELINED_PROPERTY = "pltools.pipelined";
+
+    // 列映射文件的系统属性名
+    public static final String COLUMN_MAPPING_PROPERTY = "pltools.columnMapping";
+
+    // 文件内并行提取的系统属性名
+    public static final String INTRA_FILE_PARALLEL_PROPERTY = "pltools.intraFileParallel";
+
+    // 流式写出时默认在内存中保留的行数
+    public static final int DEFAULT_ROW_WINDOW = 200;
+
+    private int parallelism;
+    private boolean streamingWrite;
+    private int rowAccessWindow;
+    private LogLevel logLevel;
+    private boolean incremental;
+    private ComputedColumnMode computedColumnMode;
+    private boolean summarySheet;
+    private String consolidatedOutput;
+    private boolean runReport;
+    private boolean pipelined;
+    private String columnMapping;
+    private boolean intraFileParallel;
+
+    private ExtractionOptions() {
+    }
+
+    /**
+     * 按系统属性创建默认参数
+     */
+    public static ExtractionOptions defaults() {
+        ExtractionOptions options = new ExtractionOptions();
+        options.parallelism = ExcelDataExtractor.defaultParallelism();
+        options.streamingWrite = Boolean.getBoolean(STREAMING_WRITE_PROPERTY);
+        options.rowAccessWindow = Math.max(1, Integer.getInteger(ROW_WINDOW_PROPERTY, DEFAULT_ROW_WINDOW));
+        options.logLevel = LogLevel.parse(System.getProperty(LOG_LEVEL_PROPERTY), LogLevel.INFO);
+        options.incremental = Boolean.getBoolean(INCREMENTAL_PROPERTY);
+        options.computedColumnMode = ComputedColumnMode.parse(System.getProperty(COMPUTED_COLUMNS_PROPERTY),
+                ComputedColumnMode.FORMULAS);
+        options.summarySheet = Boolean.getBoolean(SUMMARY_SHEET_PROPERTY);
+        options.setConsolidatedOutput(System.getProperty(CONSOLIDATED_OUTPUT_PROPERTY));
+        options.runReport = !"false".equalsIgnoreCase(System.getProperty(RUN_REPORT_PROPERTY));
+        options.pipelined = Boolean.getBoolean(PIPELINED_PROPERTY);
+        options.setColumnMapping(System.getProperty(COLUMN_MAPPING_PROPERTY));
+        options.intraFileParallel = Boolean.getBoolean(INTRA_FILE_PARALLEL_PROPERTY);
+        return options;
+    }
+
+    /**
+     * 复制一份参数，修改副本不影响原参数
+     */
+    public ExtractionOptions copy() {
+        ExtractionOptions copy = new ExtractionOptions();
+        copy.parallelism = parallelism;
+        copy.streamingWrite = streamingWrite;
+        copy.rowAccessWindow = rowAccessWindow;
+        copy.logLevel = logLevel;
+        copy.incremental = incremental;
+        copy.computedColumnMode = computedColumnMode;
+        copy.summarySheet = summarySheet;
+        copy.consolidatedOutput = consolidatedOutput;
+        copy.runReport = runReport;
+        copy.pipelined = pipelined;
+        copy.columnMapping = columnMapping;
+        copy.intraFileParallel = intraFileParallel;
+        return copy;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * 并行处理的文件数（1 表示顺序处理）
+     */
+    public ExtractionOptions setParallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+        return this;
+    }
+
+    public boolean isStreamingWrite() {
+        return streamingWrite;
+    }
+
+    /**
+     * 是否使用 SXSSF 流式写出输出文件
+     */
+    public ExtractionOptions setStreamingWrite(boolean streamingWrite) {
+        this.streamingWrite = streamingWrite;
+        return this;
+    }
+
+    public int getRowAccessWindow() {
+        return rowAccessWindow;
+    }
+
+    /**
+     * 流式写出时内存中保留的行数，超出的行会刷到临时文件
+     */
+    public ExtractionOptions setRowAccessWindow(int rowAccessWindow) {
+        this.rowAccessWindow = Math.max(1, rowAccessWindow);
+        return this;
+    }
+
+    public LogLevel getLogLevel() {
+        return logLevel;
+    }
+
+    /**
+     * 输出日志的最低级别，DEBUG 会输出逐行填充明细
+     */
+    public ExtractionOptions setLogLevel(LogLevel logLevel) {
+        this.logLevel = logLevel;
+        return this;
+    }
+
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    /**
+     * 增量模式：只处理新增或内容变化的源文件，模板变化时全部重新生成
+     */
+    public ExtractionOptions setIncremental(boolean incremental) {
+        this.incremental = incremental;
+        return this;
+    }
+
+    public ComputedColumnMode getComputedColumnMode() {
+        return computedColumnMode;
+    }
+
+    /**
+     * H列和O列写入公式（带缓存值）还是只写数值
+     */
+    public ExtractionOptions setComputedColumnMode(ComputedColumnMode computedColumnMode) {
+        this.computedColumnMode = computedColumnMode;
+        return this;
+    }
+
+    public boolean isSummarySheet() {
+        return summarySheet;
+    }
+
+    /**
+     * 是否在输出文件中追加按托盘、品种、规格、装箱日期汇总的工作表
+     */
+    public ExtractionOptions setSummarySheet(boolean summarySheet) {
+        this.summarySheet = summarySheet;
+        return this;
+    }
+
+    public String getConsolidatedOutput() {
+        return consolidatedOutput;
+    }
+
+    /**
+     * 合并模式：所有源文件的数据合并写入输出目录中的这一个文件（托盘汇总跨文件计算）。
+     * null 或空表示每个源文件单独输出
+     */
+    public ExtractionOptions setConsolidatedOutput(String fileName) {
+        this.consolidatedOutput = fileName == null || fileName.trim().isEmpty() ? null : fileName.trim();
+        return this;
+    }
+
+    public boolean isRunReport() {
+        return runReport;
+    }
+
+    /**
+     * 是否在输出目录写出包含各阶段耗时和计数的运行报告（run-report.json）
+     */
+    public ExtractionOptions setRunReport(boolean runReport) {
+        this.runReport = runReport;
+        return this;
+    }
+
+    public boolean isPipelined() {
+        return pipelined;
+    }
+
+    /**
+     * 流水线模式：读取、转换、写出在三个线程中重叠执行，经有界队列传递数据，
+     * 内存占用与文件大小无关。总是流式写出，不使用并行度设置
+     */
+    public ExtractionOptions setPipelined(boolean pipelined) {
+        this.pipelined = pipelined;
+        return this;
+    }
+
+    /**
+     * 写出方式的名称（pipelined、streaming 或 dom），用于报告
+     */
+    public String getWriteMode() {
+        return pipelined ? "pipelined" : streamingWrite ? "streaming" : "dom";
+    }
+
+    public String getColumnMapping() {
+        return columnMapping;
+    }
+
+    /**
+     * 列映射文件（properties），定义标题行、源文件列的标题别名和默认列以及模板中的目标列。
+     * null 或空表示使用内置布局（同样按标题行自动识别源文件的列）
+     */
+    public ExtractionOptions setColumnMapping(String path) {
+        this.columnMapping = path == null || path.trim().isEmpty() ? null : path.trim();
+        return this;
+    }
+
+    public boolean isIntraFileParallel() {
+        return intraFileParallel;
+    }
+
+    /**
+     * 文件内并行：单个文件的数据行分块在 ForkJoinPool 中转换为数据行，按原顺序合并，
+     * 适合行数很多的大文件。托盘汇总仍在合并后按行顺序计算（不并行）。流水线模式下不使用
+     */
+    public ExtractionOptions setIntraFileParallel(boolean intraFileParallel) {
+        this.intraFileParallel = intraFileParallel;
+        return this;
+    }
+}
@@ -0,0 +1,158 @@
+package com.sws4cloud.pltools;
+
+import com.sws4cloud.pltools.JfrEvents.StageEvent;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+/**
+ * 单个文件的处理指标：各阶段耗时、行数计数和堆内存快照。
+ * <p>
+ * 经 {@link JobContext} 传递给提取、汇总和写出各阶段。每个实例同一时刻只由一个线程使用，
+ * 因此不做同步（流水线模式中各阶段线程使用各自的实例，最后用 merge 合并）；批处理结束后由 {@link RunMetrics} 读取。
+ * 每个阶段同时作为 JFR 的 {@link StageEvent} 提交：计时从 {@link #begin()} 或上一次 record 开始。
+ */
+final class FileMetrics {
+
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    private final String fileName;
+    private final long[] stageNanos = new long[Stage.values().length];
+    private long rows;
+    private long skippedEmptyRows;
+    private long skippedRows;
+    private long parseErrors;
+    private long heapBeforeBytes;
+    private long heapAfterBytes;
+    // 正在计时的阶段事件（与 record 的 startNanos 同时开始）
+    private StageEvent stageEvent;
+
+    /**
+     * @param fileName 源文件名（不属于任何批处理的直接调用为 null）
+     */
+    FileMetrics(String fileName) {
+        this.fileName = fileName;
+    }
+
+    /**
+     * 开始为下一个阶段计时，返回作为 record 的 startNanos
+     */
+    long begin() {
+        stageEvent = new StageEvent();
+        stageEvent.begin();
+        return System.nanoTime();
+    }
+
+    /**
+     * 把从 startNanos 到现在的耗时累加到阶段 stage，并开始为下一个阶段计时，返回当前时间，便于连续计时
+     */
+    long record(Stage stage, long startNanos) {
+        return record(stage, startNanos, 0L);
+    }
+
+    /**
+     * @param bytes 阶段处理的字节数（JFR 事件字段）
+     */
+    long record(Stage stage, long startNanos, long bytes) {
+        StageEvent event = stageEvent;
+        long now = System.nanoTime();
+        stageNanos[stage.ordinal()] += now - startNanos;
+        if (event != null && event.shouldCommit()) {
+            event.fileName = fileName;
+            event.stage = stage.key();
+            event.bytes = bytes;
+            event.commit();
+        }
+        begin();
+        return now;
+    }
+
+    /**
+     * 直接累加阶段耗时，不提交阶段事件（用于与其他阶段重叠、分多段执行的工作）
+     */
+    void add(Stage stage, long nanos) {
+        stageNanos[stage.ordinal()] += nanos;
+    }
+
+    void addRows(long count) {
+        rows += count;
+    }
+
+    /**
+     * 没有任何内容的行
+     */
+    void skippedEmptyRow() {
+        skippedEmptyRows++;
+    }
+
+    /**
+     * 有内容但不能作为数据行的行（没有托盘号或无法解析）
+     */
+    void skippedRow() {
+        skippedRows++;
+    }
+
+    /**
+     * 数量或净重无法解析（按0处理）
+     */
+    void parseError() {
+        parseErrors++;
+    }
+
+    /**
+     * 累加另一个实例的阶段耗时和计数（堆快照不合并）。调用时 other 不能再被其他线程修改
+     */
+    void merge(FileMetrics other) {
+        for (int i = 0; i < stageNanos.length; i++) {
+            stageNanos[i] += other.stageNanos[i];
+        }
+        rows += other.rows;
+        skippedEmptyRows += other.skippedEmptyRows;
+        skippedRows += other.skippedRows;
+        parseErrors += other.parseErrors;
+    }
+
+    void snapshotHeapBefore() {
+        heapBeforeBytes = usedHeap();
+    }
+
+    void snapshotHeapAfter() {
+        heapAfterBytes = usedHeap();
+    }
+
+    String getFileName() {
+        return fileName;
+    }
+
+    long getStageNanos(Stage stage) {
+        return stageNanos[stage.ordinal()];
+    }
+
+    long getRows() {
+        return rows;
+    }
+
+    long getSkippedEmptyRows() {
+        return skippedEmptyRows;
+    }
+
+    long getSkippedRows() {
+        return skippedRows;
+    }
+
+    long getParseErrors() {
+        return parseErrors;
+    }
+
+    long getHeapBeforeBytes() {
+        return heapBeforeBytes;
+    }
+
+    long getHeapAfterBytes() {
+        return heapAfterBytes;
+    }
+
+    static long usedHeap() {
+        return MEMORY.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,170 @@
+package com.sws4cloud.pltools;
+
+import com.sws4cloud.pltools.ExcelDataExtractor.BufferedLogCallback;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+
+/**
+ * 文件内并行提取：单个大文件的数据行分块并行转换。
+ * <p>
+ * sheet XML 只能顺序解析，读取线程仍逐行解码单元格，每 {@value #CHUNK_ROWS} 个非空行复制成一块，
+ * 交给 ForkJoinPool 构建 DataRow（每块使用自己的字符串字典，逐行的错误日志先缓存）。
+ * 读取线程按块的顺序归并结果：把块的字典并入文件的字典、转换数据行的编号、输出缓存的日志。
+ * 字典编号、数据行顺序和逐行的错误日志因此与顺序提取完全相同。
+ * 等待归并的块数有上限，读取快于转换时读取线程先归并最早的块，内存占用与文件行数无关。
+ * <p>
+ * 托盘汇总仍在提取后按行顺序累加：净重是浮点数，按块合并部分汇总会改变加法顺序，结果与顺序模式不完全相同。
+ */
+final class ForkJoinExtraction {
+
+    // 每块的行数
+    private static final int CHUNK_ROWS = 2048;
+
+    // 每个工作线程最多对应的未归并块数
+    private static final int CHUNKS_PER_WORKER = 4;
+
+    private ForkJoinExtraction() {
+    }
+
+    /**
+     * 一块数据行的转换结果
+     */
+    private static final class Partial {
+        final DataRow[] rows;
+        final int count;
+        final StringDictionary dictionary;
+        final BufferedLogCallback log;
+        final FileMetrics metrics;
+
+        Partial(DataRow[] rows, int count, StringDictionary dictionary, BufferedLogCallback log,
+                FileMetrics metrics) {
+            this.rows = rows;
+            this.count = count;
+            this.dictionary = dictionary;
+            this.log = log;
+            this.metrics = metrics;
+        }
+    }
+
+    /**
+     * 在工作线程中转换一块数据行
+     */
+    private static final class ChunkTask extends RecursiveTask<Partial> {
+        private final RowValues[] values;
+        private final int count;
+        private final SourceLayout layout;
+        private final JobContext context;
+
+        ChunkTask(RowValues[] values, int count, SourceLayout layout, JobContext context) {
+            this.values = values;
+            this.count = count;
+            this.layout = layout;
+            this.context = context;
+        }
+
+        @Override
+        protected Partial compute() {
+            StringDictionary dictionary = new StringDictionary();
+            BufferedLogCallback log = new BufferedLogCallback();
+            FileMetrics metrics = new FileMetrics(context.getMetrics().getFileName());
+            JobContext chunkContext = context.withLog(log).withMetrics(metrics);
+
+            DataRow[] rows = new DataRow[count];
+            int rowCount = 0;
+            for (int i = 0; i < count; i++) {
+                DataRow row = ExcelDataExtractor.extractRowData(values[i], layout, dictionary, chunkContext);
+                values[i] = null;
+                if (row == null) {
+                    metrics.skippedRow();
+                    continue;
+                }
+                rows[rowCount++] = row;
+            }
+            return new Partial(rows, rowCount, dictionary, log, metrics);
+        }
+    }
+
+    /**
+     * 并行提取源文件数据，数据行按源文件顺序交给 sink
+     *
+     * @param dictionary 文件的字符串字典，数据行的编号转换到这个字典
+     */
+    static void extract(String sourceFilePath, ColumnMapping mapping, StringDictionary dictionary,
+                               JobContext context, Consumer<DataRow> sink) throws IOException {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        int maxPending = Math.max(2, pool.getParallelism() * CHUNKS_PER_WORKER);
+        FileMetrics metrics = context.getMetrics();
+        RowBatchSampler batches = new RowBatchSampler(metrics.getFileName(), "extract");
+        Deque<ChunkTask> pending = new ArrayDeque<>();
+
+        SourceLayout[] layout = new SourceLayout[1];
+        // 复制给工作线程的列数（列投影中最大的列索引 + 1）
+        int[] columns = {0};
+        RowValues[][] chunk = {new RowValues[CHUNK_ROWS]};
+        int[] count = {0};
+        try {
+            StreamingSheetReader.read(sourceFilePath, mapping.getHeaderRow(), header -> {
+                layout[0] = mapping.resolve(header, context);
+                columns[0] = layout[0].columns().maxColumn() + 1;
+                return layout[0].columns();
+            }, metrics, (rowNum, values) -> {
+                // 空行在读取线程中直接跳过
+                if (values.isEmpty()) {
+                    metrics.skippedEmptyRow();
+                    return;
+                }
+                chunk[0][count[0]++] = values.copy(columns[0]);
+                if (count[0] == CHUNK_ROWS) {
+                    pending.add(submit(pool, chunk[0], count[0], layout[0], context));
+                    chunk[0] = new RowValues[CHUNK_ROWS];
+                    count[0] = 0;
+                    while (pending.size() > maxPending) {
+                        merge(pending.poll().join(), dictionary, metrics, batches, context, sink);
+                    }
+                }
+            });
+            if (count[0] > 0) {
+                pending.add(submit(pool, chunk[0], count[0], layout[0], context));
+            }
+            while (!pending.isEmpty()) {
+                merge(pending.poll().join(), dictionary, metrics, batches, context, sink);
+            }
+        } finally {
+            // 读取失败时放弃尚未归并的块
+            for (ChunkTask task : pending) {
+                task.cancel(false);
+            }
+        }
+        batches.finish();
+    }
+
+    private static ChunkTask submit(ForkJoinPool pool, RowValues[] values, int count, SourceLayout layout,
+                                    JobContext context) {
+        ChunkTask task = new ChunkTask(values, count, layout, context);
+        pool.execute(task);
+        return task;
+    }
+
+    /**
+     * 在读取线程中按顺序归并一块的结果
+     */
+    private static void merge(Partial partial, StringDictionary dictionary, FileMetrics metrics,
+                              RowBatchSampler batches, JobContext context, Consumer<DataRow> sink) {
+        partial.log.replayTo(context.getLog());
+        metrics.merge(partial.metrics);
+        // 块的字典按编号顺序并入，新取值的编号与顺序提取时相同
+        int[] remap = partial.dictionary.remapInto(dictionary);
+        for (int i = 0; i < partial.count; i++) {
+            DataRow row = partial.rows[i];
+            row.remap(remap, dictionary);
+            metrics.addRows(1);
+            batches.row();
+            sink.accept(row);
+        }
+    }
+}
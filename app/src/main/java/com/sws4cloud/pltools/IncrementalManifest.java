@@ -0,0 +1,165 @@
+package com.sws4cloud.pltools;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Properties;
+
+/**
+ * 增量模式的清单文件，保存在输出目录中。
+ * <p>
+ * 记录模板内容哈希，以及每个源文件的内容哈希、大小、修改时间和对应的输出文件。
+ * 源文件大小和修改时间都没变时直接认为未变化，不重新计算哈希；
+ * 时间戳变了但内容哈希相同的文件也视为未变化。
+ * 模板哈希或影响输出内容的设置（计算列模式、汇总表、列映射及其目标布局）变化时所有文件都需要重新生成。
+ */
+final class IncrementalManifest {
+
+    // 清单文件名
+    static final String FILE_NAME = ".pltools-manifest.properties";
+
+    private static final String TEMPLATE_KEY = "template.hash";
+    private static final String OPTIONS_KEY = "options.hash";
+    private static final String SOURCE_PREFIX = "source.";
+
+    private final Path path;
+    private final Properties entries = new Properties();
+    private final boolean templateChanged;
+    private final boolean optionsChanged;
+
+    /**
+     * 单个源文件的检查结果。
+     * <p>
+     * 大小和修改时间在计算哈希之前读取，记录时使用同一组值：
+     * 处理期间源文件被覆盖时，清单中的时间戳与新文件不符，下次运行会重新计算哈希。
+     */
+    record Check(boolean upToDate, String hash, long size, long lastModified) {
+    }
+
+    private IncrementalManifest(Path path, String templateHash, String optionsHash) throws IOException {
+        this.path = path;
+        if (Files.isRegularFile(path)) {
+            try (InputStream in = Files.newInputStream(path)) {
+                entries.load(in);
+            }
+        }
+        this.templateChanged = !templateHash.equals(entries.getProperty(TEMPLATE_KEY));
+        this.optionsChanged = !optionsHash.equals(entries.getProperty(OPTIONS_KEY));
+        if (templateChanged || optionsChanged) {
+            // 模板或输出设置变化后旧的记录全部失效
+            entries.clear();
+            entries.setProperty(TEMPLATE_KEY, templateHash);
+            entries.setProperty(OPTIONS_KEY, optionsHash);
+        }
+    }
+
+    /**
+     * 读取输出目录中的清单（不存在时为空清单）
+     *
+     * @param optionsHash 影响输出内容的设置的哈希，见 {@link #optionsHash}
+     */
+    static IncrementalManifest load(File outputDir, String templateHash, String optionsHash) throws IOException {
+        return new IncrementalManifest(outputDir.toPath().resolve(FILE_NAME), templateHash, optionsHash);
+    }
+
+    /**
+     * 影响输出内容的设置的哈希：计算列模式、是否生成汇总表，以及列映射的内容
+     * （映射文件决定源文件的列和写入模板的目标布局）。写入方式和并行设置不改变输出内容，不计入。
+     */
+    static String optionsHash(ExtractionOptions options, ColumnMapping mapping) {
+        String settings = "computedColumns=" + options.getComputedColumnMode()
+                + "\nsummarySheet=" + options.isSummarySheet()
+                + "\ncolumnMapping=" + mapping.getHash();
+        return TemplateCache.sha256(settings.getBytes(StandardCharsets.UTF_8));
+    }
+
+    boolean isTemplateChanged() {
+        return templateChanged;
+    }
+
+    boolean isOptionsChanged() {
+        return optionsChanged;
+    }
+
+    /**
+     * 检查源文件相对上次运行是否未变化且输出文件仍然存在
+     */
+    Check check(File sourceFile, File outputFile) throws IOException {
+        String[] recorded = recordOf(sourceFile.getName());
+        long size = sourceFile.length();
+        long lastModified = sourceFile.lastModified();
+
+        if (recorded != null && outputFile.isFile()
+                && Long.toString(size).equals(recorded[1])
+                && Long.toString(lastModified).equals(recorded[2])
+                && outputFile.getName().equals(recorded[3])) {
+            return new Check(true, recorded[0], size, lastModified);
+        }
+
+        String hash = hash(sourceFile);
+        if (recorded != null && outputFile.isFile() && hash.equals(recorded[0])
+                && outputFile.getName().equals(recorded[3])) {
+            // 只是时间戳变化，更新记录以便下次走快速判断
+            Check check = new Check(true, hash, size, lastModified);
+            record(sourceFile, check, outputFile);
+            return check;
+        }
+        return new Check(false, hash, size, lastModified);
+    }
+
+    /**
+     * 记录一个已成功生成输出的源文件（使用检查时读取的哈希、大小和修改时间，不重新读取文件属性）
+     */
+    synchronized void record(File sourceFile, Check check, File outputFile) {
+        entries.setProperty(SOURCE_PREFIX + sourceFile.getName(),
+                check.hash() + "|" + check.size() + "|" + check.lastModified() + "|" + outputFile.getName());
+    }
+
+    /**
+     * 写回清单（先写临时文件再替换，避免中断时留下损坏的清单）
+     */
+    synchronized void save() throws IOException {
+        Path temp = path.resolveSibling(FILE_NAME + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            entries.store(out, "PL-TOOLS incremental manifest");
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private synchronized String[] recordOf(String sourceName) {
+        String value = entries.getProperty(SOURCE_PREFIX + sourceName);
+        if (value == null) {
+            return null;
+        }
+        String[] parts = value.split("\\|", 4);
+        return parts.length == 4 ? parts : null;
+    }
+
+    /**
+     * 计算文件内容的 SHA-256 哈希
+     */
+    static String hash(File file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
@@ -0,0 +1,113 @@
+package com.sws4cloud.pltools;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.io.File;
+
+/**
+ * JDK Flight Recorder 自定义事件。
+ * <p>
+ * 没有开启记录时 begin/commit 几乎没有开销，可以在生产环境常驻；需要分析时用
+ * -XX:StartFlightRecording 或 jcmd JFR.start 开启，在 JMC 中按 "PL-TOOLS" 分类查看。
+ * 事件都不记录调用栈。
+ */
+final class JfrEvents {
+
+    private static final String CATEGORY = "PL-TOOLS";
+
+    private JfrEvents() {
+    }
+
+    /**
+     * 单个源文件的完整处理（提取、汇总、写出）
+     */
+    @Name("com.sws4cloud.pltools.File")
+    @Label("File")
+    @Category(CATEGORY)
+    @Description("单个源文件的完整处理")
+    @StackTrace(false)
+    static final class FileEvent extends Event {
+        @Label("File Name")
+        String fileName;
+
+        @Label("Source Size")
+        @DataAmount
+        long sourceBytes;
+
+        @Label("Output Size")
+        @DataAmount
+        long outputBytes;
+
+        @Label("Rows")
+        long rows;
+
+        @Label("Success")
+        boolean success;
+
+        /**
+         * 结束计时并提交（没有开启记录时不做任何事）
+         *
+         * @param output 输出文件，没有单独输出（合并模式）时为 null
+         */
+        void finish(File source, File output, long rows, boolean success) {
+            if (shouldCommit()) {
+                fileName = source.getName();
+                sourceBytes = source.length();
+                outputBytes = output != null ? output.length() : 0L;
+                this.rows = rows;
+                this.success = success;
+                commit();
+            }
+        }
+    }
+
+    /**
+     * 文件处理流程中的一个阶段（见 {@link Stage}）
+     */
+    @Name("com.sws4cloud.pltools.Stage")
+    @Label("Stage")
+    @Category(CATEGORY)
+    @Description("文件处理流程中的一个阶段")
+    @StackTrace(false)
+    static final class StageEvent extends Event {
+        @Label("File Name")
+        String fileName;
+
+        @Label("Stage")
+        String stage;
+
+        @Label("Bytes")
+        @Description("解析阶段为解压后的工作表 XML 字节数，写出阶段为输出文件大小")
+        @DataAmount
+        long bytes;
+    }
+
+    /**
+     * 提取或填充时的一批数据行（每 {@link RowBatchSampler#BATCH_SIZE} 行一个事件）
+     */
+    @Name("com.sws4cloud.pltools.RowBatch")
+    @Label("Row Batch")
+    @Category(CATEGORY)
+    @Description("提取或填充的一批数据行")
+    @StackTrace(false)
+    static final class RowBatchEvent extends Event {
+        @Label("File Name")
+        String fileName;
+
+        @Label("Phase")
+        String phase;
+
+        @Label("First Row")
+        @Description("批次中第一行的序号（从0开始）")
+        long firstRow;
+
+        @Label("Rows")
+        long rows;
+    }
+}
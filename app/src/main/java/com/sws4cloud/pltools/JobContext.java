@@ -0,0 +1,101 @@
+package com.sws4cloud.pltools;
+
+import com.sws4cloud.pltools.ExcelDataExtractor.LogCallback;
+
+/**
+ * 单个提取任务的执行上下文。
+ * <p>
+ * 在提取、汇总、写出各阶段之间显式传递，取代原来的静态日志回调，
+ * 使多个任务（或同一任务的多个工作线程）可以同时运行而互不干扰。
+ * 行级循环中应先调用 {@link #isDebugEnabled()} 判断，避免在级别关闭时拼接日志字符串。
+ * 处理单个文件时还携带该文件的 {@link FileMetrics}，各阶段把耗时和计数记录在其中。
+ */
+final class JobContext {
+
+    private final LogCallback log;
+    private final LogLevel level;
+    private final FileMetrics metrics;
+
+    JobContext(LogCallback log, LogLevel level) {
+        this(log, level, new FileMetrics(null));
+    }
+
+    private JobContext(LogCallback log, LogLevel level, FileMetrics metrics) {
+        this.log = log;
+        this.level = level;
+        this.metrics = metrics;
+    }
+
+    /**
+     * 输出到控制台的上下文，用于没有指定日志回调的直接调用
+     */
+    static JobContext console() {
+        return new JobContext(new LogCallback() {
+            @Override
+            public void logMessage(String message) {
+                System.out.println(message);
+            }
+
+            @Override
+            public void logError(String message) {
+                System.err.println(message);
+            }
+        }, LogLevel.INFO);
+    }
+
+    /**
+     * 使用相同日志级别、但输出到另一个回调的上下文
+     */
+    JobContext withLog(LogCallback other) {
+        return new JobContext(other, level, metrics);
+    }
+
+    /**
+     * 记录到另一个文件指标的上下文
+     */
+    JobContext withMetrics(FileMetrics other) {
+        return new JobContext(log, level, other);
+    }
+
+    FileMetrics getMetrics() {
+        return metrics;
+    }
+
+    LogCallback getLog() {
+        return log;
+    }
+
+    LogLevel getLevel() {
+        return level;
+    }
+
+    boolean isEnabled(LogLevel messageLevel) {
+        return messageLevel.compareTo(level) >= 0;
+    }
+
+    boolean isDebugEnabled() {
+        return isEnabled(LogLevel.DEBUG);
+    }
+
+    void debug(String message) {
+        log(LogLevel.DEBUG, message);
+    }
+
+    void info(String message) {
+        log(LogLevel.INFO, message);
+    }
+
+    void warn(String message) {
+        log(LogLevel.WARN, message);
+    }
+
+    void error(String message) {
+        log(LogLevel.ERROR, message);
+    }
+
+    private void log(LogLevel messageLevel, String message) {
+        if (isEnabled(messageLevel)) {
+            log.log(messageLevel, message);
+        }
+    }
+}
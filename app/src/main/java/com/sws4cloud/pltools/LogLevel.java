@@ -0,0 +1,25 @@
+package com.sws4cloud.pltools;
+
+/**
+ * 日志级别（从低到高）
+ */
+public enum LogLevel {
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR;
+
+    /**
+     * 解析级别名称（不区分大小写），无法识别时返回默认值
+     */
+    public static LogLevel parse(String name, LogLevel defaultLevel) {
+        if (name == null || name.trim().isEmpty()) {
+            return defaultLevel;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return defaultLevel;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.sws4cloud.pltools;
+
+import java.util.Arrays;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * 以 long 为键的开放寻址聚合表，累加箱数、净重和行数。
+ * <p>
+ * 键和累加值都保存在基本类型数组中，累加时没有装箱，也不会为每个分组创建对象。
+ * 分组按第一次出现的顺序编号（entry），遍历结果的顺序与数据行顺序一致。
+ * 非线程安全。
+ */
+final class LongAggregateTable {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    // 哈希槽 -> entry + 1（0 表示空槽）
+    private int[] slots;
+    private int mask;
+
+    // 按 entry 顺序保存的键和累加值
+    private long[] keys;
+    private long[] cases;
+    private double[] netKg;
+    private int[] rows;
+    private int size;
+
+    LongAggregateTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    LongAggregateTable(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(DEFAULT_CAPACITY, expectedSize) * 2 - 1) << 1;
+        slots = new int[capacity];
+        mask = capacity - 1;
+        keys = new long[capacity / 2];
+        cases = new long[capacity / 2];
+        netKg = new double[capacity / 2];
+        rows = new int[capacity / 2];
+    }
+
+    /**
+     * 把一行的箱数和净重累加到 key 所在的分组，返回分组编号
+     */
+    int add(long key, long caseCount, double netWeight, int rowCount) {
+        int entry = findOrInsert(key);
+        cases[entry] += caseCount;
+        netKg[entry] += netWeight;
+        rows[entry] += rowCount;
+        return entry;
+    }
+
+    /**
+     * 把另一个表的所有分组累加到本表，键经 keyMapping 转换
+     */
+    void addAll(LongAggregateTable other, LongUnaryOperator keyMapping) {
+        for (int entry = 0; entry < other.size; entry++) {
+            add(keyMapping.applyAsLong(other.keys[entry]), other.cases[entry], other.netKg[entry], other.rows[entry]);
+        }
+    }
+
+    /**
+     * key 所在的分组编号，不存在时返回 -1
+     */
+    int indexOf(long key) {
+        int slot = hash(key) & mask;
+        while (true) {
+            int entry = slots[slot] - 1;
+            if (entry < 0) {
+                return -1;
+            }
+            if (keys[entry] == key) {
+                return entry;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * key 对应分组的箱数，不存在时为0
+     */
+    long casesOf(long key) {
+        int entry = indexOf(key);
+        return entry < 0 ? 0 : cases[entry];
+    }
+
+    int size() {
+        return size;
+    }
+
+    long key(int entry) {
+        return keys[entry];
+    }
+
+    long cases(int entry) {
+        return cases[entry];
+    }
+
+    double netKg(int entry) {
+        return netKg[entry];
+    }
+
+    int rows(int entry) {
+        return rows[entry];
+    }
+
+    private int findOrInsert(long key) {
+        int slot = hash(key) & mask;
+        while (true) {
+            int entry = slots[slot] - 1;
+            if (entry < 0) {
+                break;
+            }
+            if (keys[entry] == key) {
+                return entry;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        int entry = size++;
+        if (entry == keys.length) {
+            growEntries();
+        }
+        keys[entry] = key;
+        slots[slot] = entry + 1;
+        // 负载因子超过 0.5 时扩容哈希槽
+        if (size * 2 > slots.length) {
+            rehash(slots.length * 2);
+        }
+        return entry;
+    }
+
+    private void growEntries() {
+        int capacity = keys.length * 2;
+        keys = Arrays.copyOf(keys, capacity);
+        cases = Arrays.copyOf(cases, capacity);
+        netKg = Arrays.copyOf(netKg, capacity);
+        rows = Arrays.copyOf(rows, capacity);
+    }
+
+    private void rehash(int capacity) {
+        slots = new int[capacity];
+        mask = capacity - 1;
+        for (int entry = 0; entry < size; entry++) {
+            int slot = hash(keys[entry]) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = entry + 1;
+        }
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -17,6 +17,9 @@ public class PLToolsApplication extends Application {
             System.out.println("Application starting...");
             FXMLLoader loader = new FXMLLoader(getClass().getResource("directory-selector.fxml"));
             Parent root = loader.load();
+            // 窗口关闭时写完并关闭日志文件
+            DirectorySelectorController controller = loader.getController();
+            stage.setOnHidden(event -> controller.shutdown());
 
             Scene scene = new Scene(root, 800, 600);
             stage.setTitle("PL Tools");
@@ -0,0 +1,251 @@
+package com.sws4cloud.pltools;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * 无界面的命令行入口，用于计划任务或没有显示器的服务器。
+ * <p>
+ * 直接调用提取引擎，不加载任何 JavaFX 类。运行报告由引擎写到输出目录（run-report.json，
+ * 其中的 exitCode 与退出码相同，--no-run-report 关闭），并通过退出码报告结果：
+ * <ul>
+ *     <li>0 - 全部成功（或没有需要处理的文件）</li>
+ *     <li>1 - 部分文件处理失败</li>
+ *     <li>2 - 参数错误</li>
+ *     <li>3 - 无法执行（模板无效、源目录不存在等）</li>
+ * </ul>
+ */
+public final class PLToolsCli {
+
+    static final int EXIT_OK = 0;
+    static final int EXIT_FILES_FAILED = 1;
+    static final int EXIT_USAGE = 2;
+    static final int EXIT_FATAL = 3;
+
+    private static final String DEFAULT_TEMPLATE = TemplateCache.CLASSPATH_PREFIX + "templates/PL-Template1.xlsx";
+
+    private static final String USAGE = String.join("\n",
+            "用法: pltools-cli --source <目录> --output <目录> [选项]",
+            "",
+            "  --template <文件>      模板文件（默认使用内置模板）",
+            "  --source <目录>        源文件目录",
+            "  --output <目录>        结果存储目录",
+            "  --parallelism <n>      并行处理的文件数（默认1，即顺序处理）",
+            "  --mode <模式>          full（默认）、incremental 或 watch",
+            "  --write <方式>         dom（默认）、streaming 或 pipelined（读取、转换、写出流水线）",
+            "  --computed <方式>      计算列写入 formulas（默认，带缓存值）或 values",
+            "  --consolidate <文件名>  所有源文件合并输出到输出目录中的这一个文件（不能用于 watch 模式）",
+            "  --mapping <文件>       列映射文件（properties，默认使用内置布局并按标题行识别）",
+            "  --summary-sheet        在输出文件中追加汇总工作表",
+            "  --intra-file-parallel  大文件的数据行分块并行转换（结果与顺序处理相同）",
+            "  --no-run-report        不在输出目录写出运行报告 " + RunMetrics.REPORT_FILE_NAME,
+            "  --log-level <级别>     DEBUG、INFO（默认）、WARN 或 ERROR",
+            "  --help                 显示帮助");
+
+    /**
+     * 处理模式
+     */
+    enum Mode {
+        FULL, INCREMENTAL, WATCH
+    }
+
+    private String templatePath = DEFAULT_TEMPLATE;
+    private String sourcePath;
+    private String outputPath;
+    private Mode mode = Mode.FULL;
+    private final ExtractionOptions options = ExtractionOptions.defaults();
+
+    private PLToolsCli() {
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    /**
+     * 执行命令行任务并返回退出码（不调用 System.exit，便于脚本或其他程序内嵌调用）
+     */
+    public static int run(String[] args, PrintStream out, PrintStream err) {
+        PLToolsCli cli = new PLToolsCli();
+        try {
+            if (!cli.parse(args)) {
+                out.println(USAGE);
+                return EXIT_OK;
+            }
+        } catch (IllegalArgumentException e) {
+            err.println("参数错误: " + e.getMessage());
+            err.println(USAGE);
+            return EXIT_USAGE;
+        }
+        return cli.execute(out, err);
+    }
+
+    /**
+     * 解析参数，遇到 --help 时返回 false
+     */
+    private boolean parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if ("--help".equals(arg) || "-h".equals(arg)) {
+                return false;
+            }
+            if ("--summary-sheet".equals(arg)) {
+                options.setSummarySheet(true);
+                continue;
+            }
+            if ("--intra-file-parallel".equals(arg)) {
+                options.setIntraFileParallel(true);
+                continue;
+            }
+            if ("--no-run-report".equals(arg)) {
+                options.setRunReport(false);
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("缺少参数值: " + arg);
+            }
+            String value = args[++i];
+            switch (arg) {
+                case "--template":
+                    templatePath = value;
+                    break;
+                case "--source":
+                    sourcePath = value;
+                    break;
+                case "--output":
+                    outputPath = value;
+                    break;
+                case "--parallelism":
+                    try {
+                        options.setParallelism(Integer.parseInt(value));
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("并行度必须是整数: " + value);
+                    }
+                    break;
+                case "--mode":
+                    mode = parseEnum(Mode.class, value, arg);
+                    break;
+                case "--write":
+                    if (!"dom".equalsIgnoreCase(value) && !"streaming".equalsIgnoreCase(value)
+                            && !"pipelined".equalsIgnoreCase(value)) {
+                        throw new IllegalArgumentException("无效的写出方式: " + value);
+                    }
+                    options.setStreamingWrite(!"dom".equalsIgnoreCase(value));
+                    options.setPipelined("pipelined".equalsIgnoreCase(value));
+                    break;
+                case "--consolidate":
+                    options.setConsolidatedOutput(value);
+                    break;
+                case "--mapping":
+                    options.setColumnMapping(value);
+                    break;
+                case "--computed":
+                    options.setComputedColumnMode(parseEnum(ComputedColumnMode.class, value, arg));
+                    break;
+                case "--log-level":
+                    options.setLogLevel(parseEnum(LogLevel.class, value, arg));
+                    break;
+                default:
+                    throw new IllegalArgumentException("未知参数: " + arg);
+            }
+        }
+        if (sourcePath == null || outputPath == null) {
+            throw new IllegalArgumentException("必须指定 --source 和 --output");
+        }
+        if (mode == Mode.WATCH && options.getConsolidatedOutput() != null) {
+            // 监视模式每批只处理新增或修改的文件，合并输出会丢掉之前文件的数据
+            throw new IllegalArgumentException("监视模式不能与 --consolidate 同时使用");
+        }
+        options.setIncremental(mode != Mode.FULL);
+        return true;
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, String arg) {
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("无效的 " + arg + " 值: " + value);
+        }
+    }
+
+    private int execute(PrintStream out, PrintStream err) {
+        ExcelDataExtractor.LogCallback log = new ExcelDataExtractor.LogCallback() {
+            @Override
+            public void logMessage(String message) {
+                out.println(message);
+            }
+
+            @Override
+            public void logError(String message) {
+                err.println("ERROR: " + message);
+            }
+        };
+
+        // 先校验输入，引擎在这些情况下只记录日志并返回空结果
+        File sourceDir = new File(sourcePath);
+        if (!sourceDir.isDirectory()) {
+            err.println("ERROR: 源目录不存在或不是目录: " + sourcePath);
+            return EXIT_FATAL;
+        }
+        try {
+            TemplateCache.get(templatePath);
+        } catch (IOException e) {
+            err.println("ERROR: 加载模板失败: " + e.getMessage());
+            return EXIT_FATAL;
+        }
+        try {
+            ColumnMapping.get(options.getColumnMapping());
+        } catch (IOException e) {
+            err.println("ERROR: 加载列映射失败: " + e.getMessage());
+            return EXIT_FATAL;
+        }
+
+        if (mode == Mode.WATCH) {
+            return watch(sourceDir, log, err);
+        }
+
+        if (options.isRunReport()) {
+            // 删除上次的运行报告，批处理本身失败时不会留下过期的报告
+            try {
+                Files.deleteIfExists(new File(outputPath, RunMetrics.REPORT_FILE_NAME).toPath());
+            } catch (IOException e) {
+                err.println("ERROR: 无法删除上次的运行报告: " + e.getMessage());
+            }
+        }
+
+        int sourceCount = ExcelDataExtractor.listSourceFiles(sourceDir).length;
+        List<ExcelDataExtractor.FileResult> results = ExcelDataExtractor.executeDataExtraction(
+                templatePath, sourcePath, outputPath, options, log);
+        if (sourceCount > 0 && results.isEmpty()) {
+            // 有源文件却没有任何结果，说明批处理本身失败
+            return EXIT_FATAL;
+        }
+        return RunMetrics.exitCode(results);
+    }
+
+    /**
+     * 监视模式：一直运行到进程被终止
+     */
+    private int watch(File sourceDir, ExcelDataExtractor.LogCallback log, PrintStream err) {
+        DirectoryWatcher watcher = new DirectoryWatcher(templatePath, sourceDir, new File(outputPath), options, log);
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            watcher.close();
+            stopped.countDown();
+        }, "pl-cli-shutdown"));
+        try {
+            watcher.start();
+            stopped.await();
+        } catch (IOException e) {
+            err.println("ERROR: 无法监视目录: " + e.getMessage());
+            return EXIT_FATAL;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return EXIT_OK;
+    }
+}
@@ -0,0 +1,159 @@
+package com.sws4cloud.pltools;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 托盘相关的多维汇总：按托盘、托盘×品种、托盘×规格和装箱日期分组累加箱数、净重和行数。
+ * <p>
+ * 所有分组在一次遍历中同时累加。分组键使用提取时字典分配的整数编号（两个编号拼成一个 long），
+ * 底层是基本类型的开放寻址表，逐行累加不产生装箱对象。
+ * 结果既供 fillRowData 查询托盘总箱数，也供汇总工作表输出。非线程安全。
+ */
+final class PalletAggregation {
+
+    // 非日期文本的装箱日期键标记（日期键是 epoch day，不会达到这个范围）
+    private static final long TEXT_DATE_FLAG = 1L << 40;
+
+    private final StringDictionary dictionary;
+    private final LongAggregateTable pallets = new LongAggregateTable();
+    private final LongAggregateTable palletVarieties = new LongAggregateTable();
+    private final LongAggregateTable palletSizes = new LongAggregateTable();
+    private final LongAggregateTable packingDates = new LongAggregateTable();
+
+    /**
+     * @param dictionary 数据行的字符串字典（与 DataRow 中的编号对应）
+     */
+    PalletAggregation(StringDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * 汇总一组数据行
+     */
+    static PalletAggregation of(List<DataRow> rows, StringDictionary dictionary) {
+        PalletAggregation aggregation = new PalletAggregation(dictionary);
+        for (DataRow row : rows) {
+            aggregation.add(row);
+        }
+        return aggregation;
+    }
+
+    /**
+     * 把一行累加到所有分组
+     */
+    void add(DataRow row) {
+        double netKg = row.netWeight * row.quantity;
+        pallets.add(row.palletId, row.quantity, netKg, 1);
+        palletVarieties.add(pairKey(row.palletId, row.varietyId), row.quantity, netKg, 1);
+        palletSizes.add(pairKey(row.palletId, row.sizeId), row.quantity, netKg, 1);
+        packingDates.add(dateKey(row), row.quantity, netKg, 1);
+    }
+
+    /**
+     * 行所属托盘的总箱数
+     */
+    int palletCases(DataRow row) {
+        return (int) pallets.casesOf(row.palletId);
+    }
+
+    /**
+     * 合并另一份汇总（例如另一个文件的部分结果）。两份汇总的字典不同，键按文本重新编码
+     *
+     * @return other 的字典编号 -> 本汇总字典编号 的映射，用于转换 other 对应的数据行
+     */
+    int[] merge(PalletAggregation other) {
+        int[] remap = other.dictionary.remapInto(dictionary);
+        pallets.addAll(other.pallets, key -> remap[(int) key]);
+        palletVarieties.addAll(other.palletVarieties,
+                key -> pairKey(remap[(int) (key >>> 32)], remap[(int) key]));
+        palletSizes.addAll(other.palletSizes,
+                key -> pairKey(remap[(int) (key >>> 32)], remap[(int) key]));
+        packingDates.addAll(other.packingDates,
+                key -> isTextDateKey(key) ? TEXT_DATE_FLAG | remap[(int) key] : key);
+        return remap;
+    }
+
+    StringDictionary getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * 分组结果的访问接口
+     */
+    interface GroupVisitor {
+        /**
+         * @param keys  分组键的文本（托盘号、品种等）
+         * @param cases 箱数合计
+         * @param netKg 净重合计
+         * @param rows  行数
+         */
+        void visit(String[] keys, long cases, double netKg, int rows);
+    }
+
+    /**
+     * 按托盘遍历（按第一次出现的顺序）
+     */
+    void forEachPallet(GroupVisitor visitor) {
+        LongAggregateTable table = pallets;
+        for (int i = 0; i < table.size(); i++) {
+            visitor.visit(new String[]{dictionary.valueOf((int) table.key(i))},
+                    table.cases(i), table.netKg(i), table.rows(i));
+        }
+    }
+
+    /**
+     * 按托盘×品种遍历
+     */
+    void forEachPalletVariety(GroupVisitor visitor) {
+        forEachPair(palletVarieties, visitor);
+    }
+
+    /**
+     * 按托盘×规格遍历
+     */
+    void forEachPalletSize(GroupVisitor visitor) {
+        forEachPair(palletSizes, visitor);
+    }
+
+    /**
+     * 按装箱日期遍历，键为 yyyy-MM-dd 或源文件中的原文
+     */
+    void forEachPackingDate(GroupVisitor visitor) {
+        LongAggregateTable table = packingDates;
+        for (int i = 0; i < table.size(); i++) {
+            visitor.visit(new String[]{dateText(table.key(i))}, table.cases(i), table.netKg(i), table.rows(i));
+        }
+    }
+
+    private void forEachPair(LongAggregateTable table, GroupVisitor visitor) {
+        for (int i = 0; i < table.size(); i++) {
+            long key = table.key(i);
+            visitor.visit(new String[]{dictionary.valueOf((int) (key >>> 32)), dictionary.valueOf((int) key)},
+                    table.cases(i), table.netKg(i), table.rows(i));
+        }
+    }
+
+    private long dateKey(DataRow row) {
+        if (row.packingDay != DataRow.NO_DATE) {
+            return row.packingDay;
+        }
+        String text = row.packingDateText != null ? row.packingDateText : "";
+        return TEXT_DATE_FLAG | dictionary.idOf(text);
+    }
+
+    private String dateText(long key) {
+        if (isTextDateKey(key)) {
+            return dictionary.valueOf((int) key);
+        }
+        return LocalDate.ofEpochDay(key).toString();
+    }
+
+    private static boolean isTextDateKey(long key) {
+        return key > 0 && (key & TEXT_DATE_FLAG) != 0;
+    }
+
+    private static long pairKey(int first, int second) {
+        return ((long) first << 32) | (second & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,182 @@
+package com.sws4cloud.pltools;
+
+import com.sws4cloud.pltools.ExcelDataExtractor.FileResult;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PipelineMetricsMXBean} 的实现，进程内唯一，第一次使用时注册到平台 MBean 服务器。
+ * 每个批处理结束时累加一次。
+ */
+final class PipelineMetrics implements PipelineMetricsMXBean {
+
+    static final String OBJECT_NAME = "com.sws4cloud.pltools:type=PipelineMetrics";
+
+    private static final PipelineMetrics INSTANCE = register(new PipelineMetrics());
+
+    private long runsCompleted;
+    private long filesSucceeded;
+    private long filesFailed;
+    private long rowsExtracted;
+    private long skippedEmptyRows;
+    private long skippedRows;
+    private long parseErrors;
+    private long[] stageTotalNanos = new long[Stage.values().length];
+
+    private long lastRunElapsedNanos;
+    private long lastRunFiles;
+    private long lastRunRows;
+    private long[] lastRunStageNanos = new long[Stage.values().length];
+    private String lastRunReport;
+
+    private PipelineMetrics() {
+    }
+
+    static PipelineMetrics get() {
+        return INSTANCE;
+    }
+
+    private static PipelineMetrics register(PipelineMetrics metrics) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, new ObjectName(OBJECT_NAME));
+        } catch (JMException | SecurityException e) {
+            // 已注册（例如同一进程中加载了两次）或不允许注册时只在进程内累加
+            System.err.println("无法注册 JMX 指标 " + OBJECT_NAME + ": " + e.getMessage());
+        }
+        return metrics;
+    }
+
+    /**
+     * 累加一个已完成的批处理
+     */
+    synchronized void recordRun(RunMetrics run, List<FileResult> results, File reportFile) {
+        long rows = 0;
+        long processed = 0;
+        for (FileResult result : results) {
+            if (result.isSkipped()) {
+                continue;
+            }
+            processed++;
+            if (result.isSuccess()) {
+                filesSucceeded++;
+                rows += result.getRowCount();
+            } else {
+                filesFailed++;
+            }
+        }
+        for (FileMetrics file : run.getFiles()) {
+            skippedEmptyRows += file.getSkippedEmptyRows();
+            skippedRows += file.getSkippedRows();
+            parseErrors += file.getParseErrors();
+        }
+        long[] stages = run.stageTotals();
+        for (int i = 0; i < stages.length; i++) {
+            stageTotalNanos[i] += stages[i];
+        }
+        runsCompleted++;
+        rowsExtracted += rows;
+
+        lastRunElapsedNanos = run.getElapsedNanos();
+        lastRunFiles = processed;
+        lastRunRows = rows;
+        lastRunStageNanos = stages;
+        lastRunReport = reportFile != null ? reportFile.getAbsolutePath() : null;
+    }
+
+    @Override
+    public synchronized long getRunsCompleted() {
+        return runsCompleted;
+    }
+
+    @Override
+    public synchronized long getFilesSucceeded() {
+        return filesSucceeded;
+    }
+
+    @Override
+    public synchronized long getFilesFailed() {
+        return filesFailed;
+    }
+
+    @Override
+    public synchronized long getRowsExtracted() {
+        return rowsExtracted;
+    }
+
+    @Override
+    public synchronized long getSkippedEmptyRows() {
+        return skippedEmptyRows;
+    }
+
+    @Override
+    public synchronized long getSkippedRows() {
+        return skippedRows;
+    }
+
+    @Override
+    public synchronized long getParseErrors() {
+        return parseErrors;
+    }
+
+    @Override
+    public synchronized Map<String, Long> getStageTotalMillis() {
+        return toMillis(stageTotalNanos);
+    }
+
+    @Override
+    public synchronized long getLastRunElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(lastRunElapsedNanos);
+    }
+
+    @Override
+    public synchronized long getLastRunFiles() {
+        return lastRunFiles;
+    }
+
+    @Override
+    public synchronized long getLastRunRows() {
+        return lastRunRows;
+    }
+
+    @Override
+    public synchronized double getLastRunRowsPerSecond() {
+        return lastRunElapsedNanos > 0 ? lastRunRows / (lastRunElapsedNanos / 1e9) : 0.0;
+    }
+
+    @Override
+    public synchronized Map<String, Long> getLastRunStageMillis() {
+        return toMillis(lastRunStageNanos);
+    }
+
+    @Override
+    public synchronized String getLastRunReport() {
+        return lastRunReport;
+    }
+
+    @Override
+    public synchronized void reset() {
+        runsCompleted = 0;
+        filesSucceeded = 0;
+        filesFailed = 0;
+        rowsExtracted = 0;
+        skippedEmptyRows = 0;
+        skippedRows = 0;
+        parseErrors = 0;
+        stageTotalNanos = new long[Stage.values().length];
+    }
+
+    private static Map<String, Long> toMillis(long[] stageNanos) {
+        Map<String, Long> millis = new LinkedHashMap<>();
+        for (Stage stage : Stage.values()) {
+            millis.put(stage.key(), TimeUnit.NANOSECONDS.toMillis(stageNanos[stage.ordinal()]));
+        }
+        return millis;
+    }
+}
@@ -0,0 +1,53 @@
+package com.sws4cloud.pltools;
+
+import java.util.Map;
+
+/**
+ * 提取流程的 JMX 指标（ObjectName: com.sws4cloud.pltools:type=PipelineMetrics）。
+ * <p>
+ * 累计值从进程启动（或上次 reset）开始计算；LastRun* 为最近一次完成的批处理。
+ */
+public interface PipelineMetricsMXBean {
+
+    long getRunsCompleted();
+
+    long getFilesSucceeded();
+
+    long getFilesFailed();
+
+    long getRowsExtracted();
+
+    long getSkippedEmptyRows();
+
+    long getSkippedRows();
+
+    long getParseErrors();
+
+    /**
+     * 各阶段累计耗时（毫秒）
+     */
+    Map<String, Long> getStageTotalMillis();
+
+    long getLastRunElapsedMillis();
+
+    long getLastRunFiles();
+
+    long getLastRunRows();
+
+    double getLastRunRowsPerSecond();
+
+    /**
+     * 最近一次批处理各阶段耗时（毫秒）
+     */
+    Map<String, Long> getLastRunStageMillis();
+
+    /**
+     * 最近一次批处理的运行报告路径（未写出时为 null）
+     */
+    String getLastRunReport();
+
+    /**
+     * 清零所有累计值
+     */
+    void reset();
+}
@@ -0,0 +1,547 @@
+package com.sws4cloud.pltools;
+
+import com.sws4cloud.pltools.ExcelDataExtractor.BufferedLogCallback;
+import com.sws4cloud.pltools.ExcelDataExtractor.FileResult;
+import com.sws4cloud.pltools.ExcelDataExtractor.RowFeed;
+import com.sws4cloud.pltools.ExcelDataExtractor.RowSink;
+import com.sws4cloud.pltools.JfrEvents.FileEvent;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * 流水线模式：读取 → 转换 → 写出三个阶段在各自的线程中重叠执行。
+ * <p>
+ * 读取线程用 SAX 逐行解析源文件，把单元格值按块放入有界队列；转换线程构建 DataRow、
+ * 累加托盘汇总，并把数据行按字典编号编码后溢写到临时文件；写出线程（调用线程）在一个文件的
+ * 转换完成后读回溢写文件，按最终的托盘总箱数逐行计算计算列并流式写出。
+ * <p>
+ * 托盘总箱数要等整个文件读完才能确定，因此每个文件分两遍：第一遍汇总并溢写，第二遍写出。
+ * 队列满时上游阻塞（背压），内存占用只取决于队列容量、SXSSF 行窗口和当前文件的字典与汇总，
+ * 与文件行数无关。文件 N 写出的同时，文件 N+1 已经在读取和转换。
+ */
+final class PipelinedExtraction {
+
+    // 每个队列块的行数
+    private static final int CHUNK_ROWS = 256;
+
+    // 读取与转换之间最多排队的块数
+    private static final int ROW_QUEUE_CHUNKS = 16;
+
+    // 转换与写出之间最多排队的文件数（不含正在写出的文件）
+    private static final int FILE_QUEUE_SIZE = 1;
+
+    // 溢写文件中表示 null 的编号
+    private static final int NULL_ID = -1;
+
+    private PipelinedExtraction() {
+    }
+
+    /**
+     * 一个源文件在流水线中的状态，依次经过读取、转换、写出线程，经队列传递保证可见性
+     */
+    private static final class FileTask {
+        final File sourceFile;
+        final int index;
+        final int total;
+        // 开始读取的时间，由读取线程设置
+        long start;
+        // 按标题行确定的列布局，由读取线程在放入第一个块之前设置
+        SourceLayout layout;
+        final BufferedLogCallback buffer = new BufferedLogCallback();
+        final FileEvent fileEvent = new FileEvent();
+        // 读取线程使用的指标（登记在 RunMetrics 中）
+        final FileMetrics readMetrics;
+        // 转换和写出线程使用的指标（两者先后使用，写出完成后合并到 readMetrics）
+        final FileMetrics writeMetrics;
+        final JobContext readContext;
+        final JobContext writeContext;
+
+        FileTask(File sourceFile, int index, int total, FileMetrics readMetrics, JobContext context) {
+            this.sourceFile = sourceFile;
+            this.index = index;
+            this.total = total;
+            this.readMetrics = readMetrics;
+            this.writeMetrics = new FileMetrics(sourceFile.getName());
+            this.readContext = context.withLog(buffer).withMetrics(readMetrics);
+            this.writeContext = context.withLog(buffer).withMetrics(writeMetrics);
+        }
+    }
+
+    /**
+     * 读取线程交给转换线程的一块行（类型化的单元格值），或文件结束、读取失败的标记。
+     * task 为 null 的块是整个流水线的结束标记
+     */
+    private static final class Chunk {
+        // 所有文件都已读取
+        static final Chunk DONE = new Chunk(null, null, 0, false, null);
+
+        final FileTask task;
+        final RowValues[] rows;
+        final int count;
+        final boolean last;
+        final Exception error;
+        // 读取线程意外终止的原因（只用于结束标记）
+        final Throwable failure;
+
+        Chunk(FileTask task, RowValues[] rows, int count, boolean last, Exception error) {
+            this(task, rows, count, last, error, null);
+        }
+
+        private Chunk(FileTask task, RowValues[] rows, int count, boolean last, Exception error,
+                      Throwable failure) {
+            this.task = task;
+            this.rows = rows;
+            this.count = count;
+            this.last = last;
+            this.error = error;
+            this.failure = failure;
+        }
+
+        /**
+         * 读取线程意外终止时的结束标记
+         */
+        static Chunk aborted(Throwable failure) {
+            return new Chunk(null, null, 0, false, null, failure);
+        }
+    }
+
+    /**
+     * 转换线程交给写出线程的一个文件：溢写的数据行和托盘汇总，或转换失败的原因。
+     * task 为 null 的是整个流水线的结束标记
+     */
+    private static final class SpilledFile {
+        // 所有文件都已转换
+        static final SpilledFile DONE = new SpilledFile(null, null, 0, null, null);
+
+        final FileTask task;
+        final File spill;
+        final int rowCount;
+        final PalletAggregation aggregation;
+        final Exception error;
+        // 读取或转换线程意外终止的原因（只用于结束标记）
+        final Throwable failure;
+
+        SpilledFile(FileTask task, File spill, int rowCount, PalletAggregation aggregation, Exception error) {
+            this(task, spill, rowCount, aggregation, error, null);
+        }
+
+        private SpilledFile(FileTask task, File spill, int rowCount, PalletAggregation aggregation, Exception error,
+                            Throwable failure) {
+            this.task = task;
+            this.spill = spill;
+            this.rowCount = rowCount;
+            this.aggregation = aggregation;
+            this.error = error;
+            this.failure = failure;
+        }
+
+        /**
+         * 读取或转换线程意外终止时的结束标记
+         */
+        static SpilledFile aborted(Throwable failure) {
+            return new SpilledFile(null, null, 0, null, null, failure);
+        }
+    }
+
+    /**
+     * 读取线程在行回调中被中断时抛出，用于跳出 SAX 解析
+     */
+    private static final class PipelineInterruptedException extends RuntimeException {
+        PipelineInterruptedException(InterruptedException cause) {
+            super(cause);
+        }
+    }
+
+    /**
+     * 以流水线方式处理所有文件，返回按文件顺序排列的结果
+     */
+    static List<FileResult> run(File[] sourceFiles, String templateFilePath, File outputDir,
+                                ExtractionOptions options, RunMetrics run, JobContext context)
+            throws InterruptedException {
+        context.info("流水线模式: 读取、转换、写出并行执行，队列容量 " + ROW_QUEUE_CHUNKS * CHUNK_ROWS + " 行");
+
+        List<FileTask> tasks = new ArrayList<>(sourceFiles.length);
+        for (int i = 0; i < sourceFiles.length; i++) {
+            tasks.add(new FileTask(sourceFiles[i], i, sourceFiles.length, run.newFile(sourceFiles[i].getName()),
+                    context));
+        }
+
+        BlockingQueue<Chunk> rowQueue = new ArrayBlockingQueue<>(ROW_QUEUE_CHUNKS);
+        BlockingQueue<SpilledFile> fileQueue = new ArrayBlockingQueue<>(FILE_QUEUE_SIZE);
+        Thread reader = newThread("pl-pipeline-read", () -> read(tasks, options, rowQueue));
+        Thread transformer = newThread("pl-pipeline-transform", () -> transform(rowQueue, fileQueue));
+        reader.start();
+        transformer.start();
+
+        FileResult[] results = new FileResult[tasks.size()];
+        Throwable failure;
+        try {
+            SpilledFile spilled = fileQueue.take();
+            for (; spilled.task != null; spilled = fileQueue.take()) {
+                FileTask task = spilled.task;
+                results[task.index] = write(spilled, templateFilePath, outputDir, options);
+                task.buffer.replayTo(context.getLog());
+            }
+            failure = spilled.failure;
+        } finally {
+            reader.interrupt();
+            transformer.interrupt();
+            reader.join();
+            transformer.join();
+        }
+
+        // 读取或转换线程意外终止时，没有到达写出阶段的文件记为失败，原因为终止时的错误
+        String reason = "流水线已中断";
+        if (failure != null) {
+            reason = failure.getMessage() != null ? failure.getMessage() : failure.toString();
+            context.error("流水线意外终止: " + failure);
+        }
+        List<FileResult> ordered = new ArrayList<>(results.length);
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                tasks.get(i).buffer.replayTo(context.getLog());
+                results[i] = FileResult.failed(tasks.get(i).sourceFile.getName(), 0L, reason);
+            }
+            ordered.add(results[i]);
+        }
+        return ordered;
+    }
+
+    private static Thread newThread(String name, Runnable body) {
+        Thread thread = new Thread(body, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * 读取线程：依次解析每个文件，把非空行的单元格值按块放入队列，队列满时阻塞
+     */
+    private static void read(List<FileTask> tasks, ExtractionOptions options, BlockingQueue<Chunk> rowQueue) {
+        try {
+            for (FileTask task : tasks) {
+                readFile(task, options, rowQueue);
+            }
+            rowQueue.put(Chunk.DONE);
+        } catch (InterruptedException | PipelineInterruptedException e) {
+            // 写出线程已结束，直接退出
+        } catch (RuntimeException | Error e) {
+            // 意外错误：把原因随结束标记交给下游，剩余文件由 run 记为失败
+            e.printStackTrace();
+            putQuietly(rowQueue, Chunk.aborted(e));
+        }
+    }
+
+    private static void readFile(FileTask task, ExtractionOptions options, BlockingQueue<Chunk> rowQueue)
+            throws InterruptedException {
+        FileMetrics metrics = task.readMetrics;
+        JobContext context = task.readContext;
+        task.start = System.nanoTime();
+        metrics.snapshotHeapBefore();
+        task.fileEvent.begin();
+        context.info("\n[" + (task.index + 1) + "/" + task.total + "] 处理文件: " + task.sourceFile.getName());
+        context.info("  1. 从源文件提取数据...");
+
+        RowValues[][] chunk = {new RowValues[CHUNK_ROWS]};
+        int[] count = {0};
+        // 交给转换线程的列数（列投影中最大的列索引 + 1）
+        int[] columns = {0};
+        try {
+            ColumnMapping mapping = ColumnMapping.get(options.getColumnMapping());
+            StreamingSheetReader.read(task.sourceFile.getAbsolutePath(), mapping.getHeaderRow(), header -> {
+                task.layout = mapping.resolve(header, context);
+                columns[0] = task.layout.columns().maxColumn() + 1;
+                return task.layout.columns();
+            }, metrics, (rowNum, values) -> {
+                // 空行在读取线程中直接跳过
+                if (values.isEmpty()) {
+                    metrics.skippedEmptyRow();
+                    return;
+                }
+                chunk[0][count[0]++] = values.copy(columns[0]);
+                if (count[0] == CHUNK_ROWS) {
+                    put(rowQueue, new Chunk(task, chunk[0], CHUNK_ROWS, false, null));
+                    chunk[0] = new RowValues[CHUNK_ROWS];
+                    count[0] = 0;
+                }
+            });
+            rowQueue.put(new Chunk(task, chunk[0], count[0], true, null));
+        } catch (PipelineInterruptedException e) {
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            // 单个文件读取失败，不影响后续文件
+            rowQueue.put(new Chunk(task, null, 0, true, e));
+        }
+    }
+
+    private static void put(BlockingQueue<Chunk> rowQueue, Chunk chunk) {
+        try {
+            rowQueue.put(chunk);
+        } catch (InterruptedException e) {
+            throw new PipelineInterruptedException(e);
+        }
+    }
+
+    /**
+     * 放入结束标记，被中断时放弃（下游已经不再等待）
+     */
+    private static <T> void putQuietly(BlockingQueue<T> queue, T marker) {
+        try {
+            queue.put(marker);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 转换线程：构建数据行、累加托盘汇总并溢写，每个文件结束时交给写出线程
+     */
+    private static void transform(BlockingQueue<Chunk> rowQueue, BlockingQueue<SpilledFile> fileQueue) {
+        Transformer current = null;
+        try {
+            Chunk chunk = rowQueue.take();
+            for (; chunk.task != null; chunk = rowQueue.take()) {
+                if (current == null || current.task != chunk.task) {
+                    current = new Transformer(chunk.task);
+                }
+                current.accept(chunk);
+                if (chunk.last) {
+                    SpilledFile spilled = current.finish(chunk.error);
+                    current = null;
+                    fileQueue.put(spilled);
+                }
+            }
+            fileQueue.put(chunk.failure != null ? SpilledFile.aborted(chunk.failure) : SpilledFile.DONE);
+        } catch (InterruptedException e) {
+            // 写出线程已结束，直接退出
+        } catch (RuntimeException | Error e) {
+            // 意外错误：把原因随结束标记交给写出线程，剩余文件由 run 记为失败
+            e.printStackTrace();
+            putQuietly(fileQueue, SpilledFile.aborted(e));
+        } finally {
+            // 未完成的文件（读取线程终止、被中断或转换出错）放弃其溢写文件
+            if (current != null) {
+                current.discard();
+            }
+        }
+    }
+
+    /**
+     * 单个文件的转换状态
+     */
+    private static final class Transformer {
+        final FileTask task;
+        final FileMetrics metrics;
+        final JobContext context;
+        final StringDictionary dictionary = new StringDictionary();
+        final PalletAggregation aggregation = new PalletAggregation(dictionary);
+        final RowBatchSampler batches;
+        File spill;
+        DataOutputStream out;
+        int rowCount;
+        IOException spillError;
+
+        Transformer(FileTask task) {
+            this.task = task;
+            this.metrics = task.writeMetrics;
+            this.context = task.writeContext;
+            this.batches = new RowBatchSampler(metrics.getFileName(), "extract");
+        }
+
+        void accept(Chunk chunk) {
+            if (chunk.rows == null || spillError != null) {
+                return;
+            }
+            long start = System.nanoTime();
+            try {
+                if (out == null) {
+                    spill = File.createTempFile("pltools-", ".spill");
+                    out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(spill)));
+                }
+                for (int i = 0; i < chunk.count; i++) {
+                    DataRow row = ExcelDataExtractor.extractRowData(chunk.rows[i], task.layout, dictionary,
+                            context);
+                    if (row == null) {
+                        metrics.skippedRow();
+                        continue;
+                    }
+                    metrics.addRows(1);
+                    batches.row();
+                    aggregation.add(row);
+                    writeRow(out, row, dictionary);
+                    rowCount++;
+                }
+            } catch (IOException e) {
+                spillError = e;
+            }
+            // 与读取、写出重叠执行，只累加耗时，不单独提交阶段事件
+            metrics.add(Stage.AGGREGATION, System.nanoTime() - start);
+        }
+
+        /**
+         * 放弃未完成的文件：关闭并删除溢写文件
+         */
+        void discard() {
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (IOException ignored) {
+                    // 文件随后删除
+                }
+                out = null;
+            }
+            deleteSpill(spill);
+            spill = null;
+        }
+
+        /**
+         * @param readError 读取线程报告的错误，没有时为 null
+         */
+        SpilledFile finish(Exception readError) {
+            batches.finish();
+            Exception error = readError != null ? readError : spillError;
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (IOException e) {
+                    error = error != null ? error : e;
+                }
+            }
+            if (error != null) {
+                deleteSpill(spill);
+                return new SpilledFile(task, null, 0, null, error);
+            }
+            context.info("     提取到 " + rowCount + " 行数据");
+            context.info("  2. 计算托盘汇总信息...");
+            return new SpilledFile(task, spill, rowCount, aggregation, null);
+        }
+    }
+
+    /**
+     * 写出线程：按最终的托盘汇总读回溢写文件并写出
+     */
+    private static FileResult write(SpilledFile spilled, String templateFilePath, File outputDir,
+                                    ExtractionOptions options) {
+        FileTask task = spilled.task;
+        JobContext context = task.writeContext;
+        File outputFile = ExcelDataExtractor.outputFileFor(outputDir, task.sourceFile);
+        boolean success = false;
+        try {
+            if (spilled.error != null) {
+                throw spilled.error;
+            }
+            context.info("  3. 将数据写入模板文件...");
+            PalletAggregation summary = options.isSummarySheet() ? spilled.aggregation : null;
+            TargetLayout target = ColumnMapping.get(options.getColumnMapping()).getTarget();
+            ExcelDataExtractor.writeRowsStreaming(new SpillFeed(spilled), summary, templateFilePath,
+                    outputFile.getPath(), options.getRowAccessWindow(), target, options.getComputedColumnMode(),
+                    context);
+            context.info("  处理完成！输出文件: " + outputFile.getPath());
+            success = true;
+            return FileResult.succeeded(task.sourceFile.getName(), System.nanoTime() - task.start,
+                    spilled.rowCount);
+        } catch (Exception e) {
+            context.error("  处理文件 " + task.sourceFile.getName() + " 时发生错误: " + e.getMessage());
+            e.printStackTrace();
+            return FileResult.failed(task.sourceFile.getName(), System.nanoTime() - task.start, e.getMessage());
+        } finally {
+            deleteSpill(spilled.spill);
+            task.readMetrics.merge(task.writeMetrics);
+            task.readMetrics.snapshotHeapAfter();
+            task.fileEvent.finish(task.sourceFile, success ? outputFile : null, task.readMetrics.getRows(), success);
+        }
+    }
+
+    /**
+     * 从溢写文件依次读回数据行，计算列按整个文件的托盘总箱数逐行计算
+     */
+    private static final class SpillFeed implements RowFeed {
+        private final SpilledFile spilled;
+
+        SpillFeed(SpilledFile spilled) {
+            this.spilled = spilled;
+        }
+
+        @Override
+        public int size() {
+            return spilled.rowCount;
+        }
+
+        @Override
+        public void forEach(RowSink sink) throws IOException {
+            PalletAggregation aggregation = spilled.aggregation;
+            StringDictionary dictionary = aggregation.getDictionary();
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                    new FileInputStream(spilled.spill)))) {
+                for (int i = 0; i < spilled.rowCount; i++) {
+                    DataRow row = readRow(in, dictionary);
+                    int palletCases = aggregation.palletCases(row);
+                    sink.accept(row, ComputedColumns.rowTotalNetWeight(row), palletCases,
+                            ComputedColumns.rowPallets(row.quantity, palletCases));
+                }
+            }
+        }
+    }
+
+    /**
+     * 溢写一行：文本列写字典编号，数值列写原值
+     */
+    private static void writeRow(DataOutputStream out, DataRow row, StringDictionary dictionary) throws IOException {
+        out.writeInt(row.palletId);
+        out.writeInt(row.varietyId);
+        out.writeInt(row.sizeId);
+        out.writeInt(idOf(row.label, dictionary));
+        out.writeDouble(row.netWeight);
+        out.writeInt(row.quantity);
+        out.writeInt(idOf(row.csg, dictionary));
+        out.writeInt(idOf(row.csp, dictionary));
+        out.writeInt(row.packingDay);
+        out.writeInt(idOf(row.packingDateText, dictionary));
+        out.writeInt(idOf(row.cat, dictionary));
+        out.writeInt(idOf(row.tempRecorder, dictionary));
+    }
+
+    private static DataRow readRow(DataInputStream in, StringDictionary dictionary) throws IOException {
+        DataRow row = new DataRow();
+        row.palletId = in.readInt();
+        row.varietyId = in.readInt();
+        row.sizeId = in.readInt();
+        row.idPallet = dictionary.valueOf(row.palletId);
+        row.variety = dictionary.valueOf(row.varietyId);
+        row.size = dictionary.valueOf(row.sizeId);
+        row.label = valueOf(in.readInt(), dictionary);
+        row.netWeight = in.readDouble();
+        row.quantity = in.readInt();
+        row.csg = valueOf(in.readInt(), dictionary);
+        row.csp = valueOf(in.readInt(), dictionary);
+        row.packingDay = in.readInt();
+        row.packingDateText = valueOf(in.readInt(), dictionary);
+        row.cat = valueOf(in.readInt(), dictionary);
+        row.tempRecorder = valueOf(in.readInt(), dictionary);
+        return row;
+    }
+
+    private static int idOf(String value, StringDictionary dictionary) {
+        return value == null ? NULL_ID : dictionary.idOf(value);
+    }
+
+    private static String valueOf(int id, StringDictionary dictionary) {
+        return id == NULL_ID ? null : dictionary.valueOf(id);
+    }
+
+    private static void deleteSpill(File spill) {
+        if (spill != null && !spill.delete() && spill.exists()) {
+            spill.deleteOnExit();
+        }
+    }
+}
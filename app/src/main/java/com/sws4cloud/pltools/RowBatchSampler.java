@@ -0,0 +1,65 @@
+package com.sws4cloud.pltools;
+
+import com.sws4cloud.pltools.JfrEvents.RowBatchEvent;
+
+/**
+ * 按固定行数把提取或填充的数据行切成批次，每批提交一个 {@link RowBatchEvent}。
+ * 没有开启 JFR 记录时只做计数。非线程安全，每个文件的每个阶段使用自己的实例。
+ */
+final class RowBatchSampler {
+
+    // 每个事件覆盖的行数
+    static final int BATCH_SIZE = 1000;
+
+    private final String fileName;
+    private final String phase;
+    private RowBatchEvent event;
+    private long rows;
+    private long batchRows;
+
+    /**
+     * @param phase extract 或 fill
+     */
+    RowBatchSampler(String fileName, String phase) {
+        this.fileName = fileName;
+        this.phase = phase;
+        begin();
+    }
+
+    /**
+     * 记录一行，满一批时提交事件并开始下一批
+     */
+    void row() {
+        rows++;
+        if (++batchRows == BATCH_SIZE) {
+            commit();
+            begin();
+        }
+    }
+
+    /**
+     * 提交最后不满一批的行
+     */
+    void finish() {
+        if (batchRows > 0) {
+            commit();
+        }
+        event = null;
+    }
+
+    private void begin() {
+        batchRows = 0;
+        event = new RowBatchEvent();
+        event.begin();
+    }
+
+    private void commit() {
+        if (event.shouldCommit()) {
+            event.fileName = fileName;
+            event.phase = phase;
+            event.firstRow = rows - batchRows;
+            event.rows = batchRows;
+            event.commit();
+        }
+    }
+}
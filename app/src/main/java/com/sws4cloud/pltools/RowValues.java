@@ -0,0 +1,295 @@
+package com.sws4cloud.pltools;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Row;
+
+import java.util.Arrays;
+
+/**
+ * 一行的类型化单元格值（按列索引访问）。
+ * <p>
+ * 解码时只记录单元格的类型和原始值：数值和日期保存为 double 和 epoch day，文本保存为字符串。
+ * 文本形式（与原 getCellValue 的规则一致）在 {@link #get(int)} 时才生成，
+ * 数量、净重、装箱日期等列直接读取类型化的值，不经过格式化再解析。
+ * 空行判断只看类型和文本是否为空白，不格式化任何值。
+ * <p>
+ * SAX 读取（{@link StreamingSheetReader}）和 DOM 读取（{@link #load(Row, ColumnSet)}）共用这一结构，
+ * 两者都只解码列投影（{@link ColumnSet}）中的列。
+ * 非线程安全，读取器逐行复用同一个实例。
+ */
+final class RowValues {
+
+    // 单元格类型
+    private static final byte BLANK = 0;
+    // 文本、布尔值或公式的最终文本
+    private static final byte TEXT = 1;
+    // 普通数值单元格
+    private static final byte NUMBER = 2;
+    // 日期格式的数值单元格，值为 epoch day
+    private static final byte DATE = 3;
+    // 数值结果的公式单元格
+    private static final byte FORMULA_NUMBER = 4;
+
+    private byte[] kinds;
+    private double[] numbers;
+    private String[] texts;
+    private int lastColumn = -1;
+    private boolean empty = true;
+
+    // 每列最近一次格式化的数值及其文本（编码类的列取值重复率很高）
+    private double[] cachedNumbers;
+    private String[] cachedTexts;
+
+    RowValues() {
+        this(32);
+    }
+
+    private RowValues(int columns) {
+        kinds = new byte[columns];
+        numbers = new double[columns];
+        texts = new String[columns];
+    }
+
+    /**
+     * 单元格的文本值（缺失或空白的单元格返回空字符串）
+     */
+    String get(int col) {
+        if (col > lastColumn) {
+            return "";
+        }
+        switch (kinds[col]) {
+            case TEXT:
+                return texts[col];
+            case NUMBER:
+                return numberText(col);
+            case DATE:
+                return ExcelDataExtractor.formatDateValue((int) numbers[col]);
+            case FORMULA_NUMBER:
+                return String.valueOf(numbers[col]);
+            default:
+                return "";
+        }
+    }
+
+    /**
+     * 单元格是数值或数值结果的公式
+     */
+    boolean isNumber(int col) {
+        return col <= lastColumn && (kinds[col] == NUMBER || kinds[col] == FORMULA_NUMBER);
+    }
+
+    boolean isFormula(int col) {
+        return col <= lastColumn && kinds[col] == FORMULA_NUMBER;
+    }
+
+    /**
+     * 数值单元格的原始值（isNumber 为 true 时有效）
+     */
+    double number(int col) {
+        return numbers[col];
+    }
+
+    /**
+     * 单元格是日期格式的数值
+     */
+    boolean isDate(int col) {
+        return col <= lastColumn && kinds[col] == DATE;
+    }
+
+    /**
+     * 日期单元格的 epoch day（isDate 为 true 时有效）
+     */
+    int epochDay(int col) {
+        return (int) numbers[col];
+    }
+
+    /**
+     * 已解码的列数（最后一个单元格的列索引 + 1）
+     */
+    int columnCount() {
+        return lastColumn + 1;
+    }
+
+    /**
+     * 与 isRowEmpty 相同的判断：已解码的单元格（列投影内）去空格后都为空
+     */
+    boolean isEmpty() {
+        return empty;
+    }
+
+    void setText(int col, String value) {
+        ensureCapacity(col);
+        kinds[col] = TEXT;
+        texts[col] = value;
+        if (empty && !isBlank(value)) {
+            empty = false;
+        }
+    }
+
+    void setNumber(int col, double value) {
+        setNumeric(col, NUMBER, value);
+    }
+
+    void setDate(int col, int epochDay) {
+        setNumeric(col, DATE, epochDay);
+    }
+
+    void setFormulaNumber(int col, double value) {
+        setNumeric(col, FORMULA_NUMBER, value);
+    }
+
+    void setBlank(int col) {
+        ensureCapacity(col);
+        kinds[col] = BLANK;
+    }
+
+    void clear() {
+        Arrays.fill(kinds, 0, lastColumn + 1, BLANK);
+        Arrays.fill(texts, 0, lastColumn + 1, null);
+        lastColumn = -1;
+        empty = true;
+    }
+
+    /**
+     * 前 columns 列的快照（不含格式化缓存），交给其他线程使用
+     */
+    RowValues copy(int columns) {
+        RowValues copy = new RowValues(columns);
+        int length = Math.min(columns, lastColumn + 1);
+        System.arraycopy(kinds, 0, copy.kinds, 0, length);
+        System.arraycopy(numbers, 0, copy.numbers, 0, length);
+        System.arraycopy(texts, 0, copy.texts, 0, length);
+        copy.lastColumn = length - 1;
+        copy.empty = empty;
+        return copy;
+    }
+
+    /**
+     * 从 DOM 行解码所有单元格（清空之前的内容），用于标题行
+     */
+    void load(Row row) {
+        clear();
+        for (Cell cell : row) {
+            set(cell.getColumnIndex(), cell);
+        }
+    }
+
+    /**
+     * 从 DOM 行只解码 columns 中的列（清空之前的内容）
+     */
+    void load(Row row, ColumnSet columns) {
+        clear();
+        for (int i = 0; i < columns.size(); i++) {
+            int col = columns.get(i);
+            Cell cell = row.getCell(col);
+            if (cell != null) {
+                set(col, cell);
+            }
+        }
+    }
+
+    /**
+     * 按单元格类型解码：公式按缓存结果的类型分派，不依赖异常
+     */
+    private void set(int col, Cell cell) {
+        switch (cell.getCellType()) {
+            case STRING:
+                setText(col, cell.getStringCellValue().trim());
+                break;
+            case NUMERIC:
+                if (DateUtil.isCellDateFormatted(cell)) {
+                    setDate(col, (int) cell.getLocalDateTimeCellValue().toLocalDate().toEpochDay());
+                } else {
+                    setNumber(col, cell.getNumericCellValue());
+                }
+                break;
+            case BOOLEAN:
+                setText(col, String.valueOf(cell.getBooleanCellValue()));
+                break;
+            case FORMULA:
+                CellType resultType = cell.getCachedFormulaResultType();
+                if (resultType == CellType.STRING) {
+                    setText(col, cell.getStringCellValue());
+                } else if (resultType == CellType.NUMERIC) {
+                    setFormulaNumber(col, cell.getNumericCellValue());
+                } else {
+                    setText(col, cell.getCellFormula());
+                }
+                break;
+            default:
+                setBlank(col);
+                break;
+        }
+    }
+
+    /**
+     * DOM 单元格是否为空白（与 getCellValue 去空格后为空相同，但不格式化数值）
+     */
+    static boolean isBlank(Cell cell) {
+        switch (cell.getCellType()) {
+            case STRING:
+                return isBlank(cell.getStringCellValue());
+            case NUMERIC:
+            case BOOLEAN:
+                return false;
+            case FORMULA:
+                CellType resultType = cell.getCachedFormulaResultType();
+                if (resultType == CellType.STRING) {
+                    return isBlank(cell.getStringCellValue());
+                }
+                return resultType != CellType.NUMERIC && isBlank(cell.getCellFormula());
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * 与 value.trim().isEmpty() 相同，但不创建新字符串
+     */
+    static boolean isBlank(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void setNumeric(int col, byte kind, double value) {
+        ensureCapacity(col);
+        kinds[col] = kind;
+        numbers[col] = value;
+        // 数值的文本形式不会为空
+        empty = false;
+    }
+
+    private String numberText(int col) {
+        double value = numbers[col];
+        if (cachedTexts == null) {
+            cachedNumbers = new double[kinds.length];
+            cachedTexts = new String[kinds.length];
+        } else if (col >= cachedTexts.length) {
+            cachedNumbers = Arrays.copyOf(cachedNumbers, kinds.length);
+            cachedTexts = Arrays.copyOf(cachedTexts, kinds.length);
+        }
+        String text = cachedTexts[col];
+        if (text == null || cachedNumbers[col] != value) {
+            text = ExcelDataExtractor.formatNumericValue(value);
+            cachedNumbers[col] = value;
+            cachedTexts[col] = text;
+        }
+        return text;
+    }
+
+    private void ensureCapacity(int col) {
+        if (col >= kinds.length) {
+            int length = Math.max(col + 1, kinds.length * 2);
+            kinds = Arrays.copyOf(kinds, length);
+            numbers = Arrays.copyOf(numbers, length);
+            texts = Arrays.copyOf(texts, length);
+        }
+        lastColumn = Math.max(lastColumn, col);
+    }
+}
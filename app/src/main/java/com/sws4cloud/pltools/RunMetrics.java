@@ -0,0 +1,222 @@
+package com.sws4cloud.pltools;
+
+import com.sws4cloud.pltools.ExcelDataExtractor.FileResult;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一个批次的处理指标：收集每个文件的 {@link FileMetrics}，批处理结束后汇总，
+ * 写出运行报告（run-report.json），并累加到 JMX 的 {@link PipelineMetrics}。
+ * 命令行入口不再单独写汇总文件，报告中的 exitCode 与命令行的退出码相同。
+ */
+final class RunMetrics {
+
+    // 运行报告文件名（写到输出目录）
+    static final String REPORT_FILE_NAME = "run-report.json";
+
+    private final Instant startedAt = Instant.now();
+    private final long startNanos = System.nanoTime();
+    private final long heapBeforeBytes = FileMetrics.usedHeap();
+    private final List<FileMetrics> files = new ArrayList<>();
+    // 合并模式下合并文件的写出指标
+    private FileMetrics consolidatedOutput;
+    private long elapsedNanos;
+    private long heapAfterBytes;
+
+    /**
+     * 为一个源文件创建指标（可在工作线程中调用）
+     */
+    synchronized FileMetrics newFile(String fileName) {
+        FileMetrics metrics = new FileMetrics(fileName);
+        files.add(metrics);
+        return metrics;
+    }
+
+    /**
+     * 合并模式下合并输出文件的指标
+     */
+    synchronized FileMetrics newConsolidatedOutput(String fileName) {
+        consolidatedOutput = new FileMetrics(fileName);
+        return consolidatedOutput;
+    }
+
+    /**
+     * 批处理结束：记录总耗时和堆内存
+     */
+    void finish() {
+        elapsedNanos = System.nanoTime() - startNanos;
+        heapAfterBytes = FileMetrics.usedHeap();
+    }
+
+    /**
+     * 所有文件的指标（含合并输出文件）
+     */
+    synchronized List<FileMetrics> getFiles() {
+        List<FileMetrics> all = new ArrayList<>(files);
+        if (consolidatedOutput != null) {
+            all.add(consolidatedOutput);
+        }
+        return all;
+    }
+
+    long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * 各阶段在所有文件上的累计耗时
+     */
+    long[] stageTotals() {
+        long[] totals = new long[Stage.values().length];
+        for (FileMetrics metrics : getFiles()) {
+            for (Stage stage : Stage.values()) {
+                totals[stage.ordinal()] += metrics.getStageNanos(stage);
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * 批处理结果对应的退出码：有文件失败时为 {@link PLToolsCli#EXIT_FILES_FAILED}，否则为 {@link PLToolsCli#EXIT_OK}
+     */
+    static int exitCode(List<FileResult> results) {
+        for (FileResult result : results) {
+            if (!result.isSuccess()) {
+                return PLToolsCli.EXIT_FILES_FAILED;
+            }
+        }
+        return PLToolsCli.EXIT_OK;
+    }
+
+    /**
+     * 写出运行报告
+     */
+    void writeReport(File reportFile, List<FileResult> results, ExtractionOptions options, int workers)
+            throws IOException {
+        Map<String, FileResult> resultsByName = new HashMap<>();
+        for (FileResult result : results) {
+            resultsByName.put(result.getFileName(), result);
+        }
+        List<FileMetrics> sourceFiles;
+        FileMetrics output;
+        synchronized (this) {
+            sourceFiles = new ArrayList<>(files);
+            output = consolidatedOutput;
+        }
+        sourceFiles.sort(Comparator.comparing(FileMetrics::getFileName));
+
+        int succeeded = 0;
+        int failed = 0;
+        int skipped = 0;
+        long rows = 0;
+        for (FileResult result : results) {
+            if (result.isSkipped()) {
+                skipped++;
+            } else if (result.isSuccess()) {
+                succeeded++;
+                rows += result.getRowCount();
+            } else {
+                failed++;
+            }
+        }
+        long skippedEmptyRows = 0;
+        long skippedRows = 0;
+        long parseErrors = 0;
+        for (FileMetrics metrics : sourceFiles) {
+            skippedEmptyRows += metrics.getSkippedEmptyRows();
+            skippedRows += metrics.getSkippedRows();
+            parseErrors += metrics.getParseErrors();
+        }
+        double seconds = Math.max(1L, elapsedNanos) / 1e9;
+
+        try (JsonWriter json = new JsonWriter(Files.newBufferedWriter(reportFile.toPath(), StandardCharsets.UTF_8))) {
+            json.beginObject()
+                    .name("exitCode").value(exitCode(results))
+                    .name("startedAt").value(startedAt.toString())
+                    .name("elapsedMillis").value(TimeUnit.NANOSECONDS.toMillis(elapsedNanos))
+                    .name("mode").value(options.isIncremental() && options.getConsolidatedOutput() == null
+                            ? "incremental" : "full")
+                    .name("workers").value(workers)
+                    .name("writeMode").value(options.getWriteMode())
+                    .name("computedColumns").value(options.getComputedColumnMode().name().toLowerCase())
+                    .name("consolidatedOutput").value(options.getConsolidatedOutput())
+                    .name("intraFileParallel").value(options.isIntraFileParallel())
+                    .name("heap").beginObject()
+                    .name("beforeBytes").value(heapBeforeBytes)
+                    .name("afterBytes").value(heapAfterBytes)
+                    .name("maxBytes").value(Runtime.getRuntime().maxMemory())
+                    .endObject()
+                    .name("totals").beginObject()
+                    .name("files").value(results.size())
+                    .name("succeeded").value(succeeded)
+                    .name("failed").value(failed)
+                    .name("skipped").value(skipped)
+                    .name("rows").value(rows)
+                    .name("skippedEmptyRows").value(skippedEmptyRows)
+                    .name("skippedRows").value(skippedRows)
+                    .name("parseErrors").value(parseErrors)
+                    .name("filesPerSecond").value((succeeded + failed) / seconds)
+                    .name("rowsPerSecond").value(rows / seconds);
+            writeStages(json, stageTotals());
+            json.endObject();
+
+            json.name("files").beginArray();
+            for (FileMetrics metrics : sourceFiles) {
+                FileResult result = resultsByName.get(metrics.getFileName());
+                json.beginObject().name("name").value(metrics.getFileName());
+                if (result != null) {
+                    json.name("status").value(result.isSuccess() ? "succeeded" : "failed")
+                            .name("elapsedMillis").value(result.getElapsedMillis());
+                    if (result.getErrorMessage() != null) {
+                        json.name("error").value(result.getErrorMessage());
+                    }
+                }
+                writeFile(json, metrics);
+                json.endObject();
+            }
+            json.endArray();
+
+            if (output != null) {
+                json.name("consolidatedFile").beginObject().name("name").value(output.getFileName());
+                writeFile(json, output);
+                json.endObject();
+            }
+            json.endObject();
+        }
+    }
+
+    private static void writeFile(JsonWriter json, FileMetrics metrics) throws IOException {
+        json.name("rows").value(metrics.getRows())
+                .name("skippedEmptyRows").value(metrics.getSkippedEmptyRows())
+                .name("skippedRows").value(metrics.getSkippedRows())
+                .name("parseErrors").value(metrics.getParseErrors())
+                .name("heapBeforeBytes").value(metrics.getHeapBeforeBytes())
+                .name("heapAfterBytes").value(metrics.getHeapAfterBytes());
+        long[] stageNanos = new long[Stage.values().length];
+        for (Stage stage : Stage.values()) {
+            stageNanos[stage.ordinal()] = metrics.getStageNanos(stage);
+        }
+        writeStages(json, stageNanos);
+    }
+
+    /**
+     * 各阶段耗时（毫秒，保留小数）
+     */
+    private static void writeStages(JsonWriter json, long[] stageNanos) throws IOException {
+        json.name("stageMillis").beginObject();
+        for (Stage stage : Stage.values()) {
+            json.name(stage.key()).value(stageNanos[stage.ordinal()] / 1e6);
+        }
+        json.endObject();
+    }
+}
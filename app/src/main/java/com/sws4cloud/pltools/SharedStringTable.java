@@ -0,0 +1,288 @@
+package com.sws4cloud.pltools;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.usermodel.XSSFRelation;
+import org.apache.poi.xssf.usermodel.XSSFRichTextString;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 按需解码的共享字符串表。
+ * <p>
+ * ReadOnlySharedStringsTable 在读取第一行之前把 sharedStrings.xml 中的所有条目转成 Java 字符串，
+ * 而提取只读取投影内的列，大部分条目从不会被用到。这里只解析一遍 XML，把每个条目的文本以 UTF-8 字节
+ * 连续保存，并记录每个条目的起始偏移；单元格引用某个条目时才生成字符串，最近用到的条目（品种名等）
+ * 保存在一个小的 LRU 缓存中。文本超过 {@value #HEAP_LIMIT} 字节时转存到临时文件，按偏移随机读取，
+ * 不占用堆内存。
+ * <p>
+ * 条目文本与 ReadOnlySharedStringsTable（不含注音）相同，只在读取工作表的线程中使用，不是线程安全的。
+ */
+final class SharedStringTable implements Closeable {
+
+    // 文本保存在内存中的上限，超过后转存到临时文件
+    static final int HEAP_LIMIT = 4 * 1024 * 1024;
+    // LRU 缓存的条目数
+    private static final int CACHE_SIZE = 1024;
+
+    // 第 i 个条目的文本为 [offsets[i], offsets[i + 1])
+    private long[] offsets;
+    private int size;
+    // 内存中的文本（转存前）
+    private byte[] heap = new byte[8192];
+    private int heapLength;
+    // 转存后的临时文件
+    private File file;
+    private OutputStream out;
+    private long fileLength;
+    private FileChannel channel;
+    private ByteBuffer buffer;
+
+    private final Map<Integer, String> cache = new LinkedHashMap<>(CACHE_SIZE * 4 / 3 + 1, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, String> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    private SharedStringTable(int expected) {
+        offsets = new long[Math.max(expected, 16) + 1];
+    }
+
+    /**
+     * 解析工作簿的共享字符串表，工作簿中没有共享字符串表时返回空表
+     */
+    static SharedStringTable load(OPCPackage pkg) throws IOException, SAXException, ParserConfigurationException {
+        List<PackagePart> parts = pkg.getPartsByContentType(XSSFRelation.SHARED_STRINGS.getContentType());
+        if (parts.isEmpty()) {
+            return new SharedStringTable(0);
+        }
+        Loader loader = new Loader();
+        try (InputStream in = parts.get(0).getInputStream()) {
+            XMLReader xmlReader = XMLHelper.newXMLReader();
+            xmlReader.setContentHandler(loader);
+            xmlReader.parse(new InputSource(in));
+            if (loader.table == null) {
+                loader.table = new SharedStringTable(0);
+            }
+            loader.table.finish();
+        } catch (IOException | SAXException | RuntimeException e) {
+            if (loader.table != null) {
+                loader.table.close();
+            }
+            throw e;
+        }
+        return loader.table;
+    }
+
+    /**
+     * 条目数
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * 第 index 个条目的文本
+     */
+    String get(int index) throws IOException {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("共享字符串索引超出范围: " + index + "（共 " + size + " 个）");
+        }
+        Integer key = index;
+        String value = cache.get(key);
+        if (value == null) {
+            value = decode(index);
+            cache.put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * 删除临时文件
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (out != null) {
+                out.close();
+                out = null;
+            }
+            if (channel != null) {
+                channel.close();
+                channel = null;
+            }
+        } finally {
+            if (file != null && !file.delete() && file.exists()) {
+                file.deleteOnExit();
+            }
+            file = null;
+        }
+    }
+
+    private String decode(int index) throws IOException {
+        long start = offsets[index];
+        int length = (int) (offsets[index + 1] - start);
+        String text;
+        if (channel == null) {
+            text = new String(heap, (int) start, length, StandardCharsets.UTF_8);
+        } else {
+            if (buffer == null || buffer.capacity() < length) {
+                buffer = ByteBuffer.allocate(Math.max(length, 256));
+            }
+            buffer.clear().limit(length);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, start + buffer.position()) < 0) {
+                    throw new IOException("共享字符串临时文件不完整: " + file);
+                }
+            }
+            text = new String(buffer.array(), 0, length, StandardCharsets.UTF_8);
+        }
+        // _xHHHH_ 形式的转义字符按 POI 的规则还原
+        return text.indexOf("_x") >= 0 ? new XSSFRichTextString(text).getString() : text;
+    }
+
+    private void add(String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        if (out == null && heapLength + bytes.length > HEAP_LIMIT) {
+            spill();
+        }
+        if (out != null) {
+            out.write(bytes);
+            fileLength += bytes.length;
+        } else {
+            if (heapLength + bytes.length > heap.length) {
+                heap = Arrays.copyOf(heap, Math.max(heap.length * 2, heapLength + bytes.length));
+            }
+            System.arraycopy(bytes, 0, heap, heapLength, bytes.length);
+            heapLength += bytes.length;
+        }
+        if (size + 2 > offsets.length) {
+            offsets = Arrays.copyOf(offsets, offsets.length * 2);
+        }
+        size++;
+        offsets[size] = out != null ? fileLength : heapLength;
+    }
+
+    /**
+     * 把已保存的文本写入临时文件，之后的条目直接追加到文件
+     */
+    private void spill() throws IOException {
+        file = File.createTempFile("pltools-", ".sst");
+        out = new BufferedOutputStream(new FileOutputStream(file), 65536);
+        out.write(heap, 0, heapLength);
+        fileLength = heapLength;
+        heap = null;
+        heapLength = 0;
+    }
+
+    private void finish() throws IOException {
+        if (out != null) {
+            out.close();
+            out = null;
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        } else if (heap.length > heapLength) {
+            heap = Arrays.copyOf(heap, heapLength);
+        }
+        if (offsets.length > size + 1) {
+            offsets = Arrays.copyOf(offsets, size + 1);
+        }
+    }
+
+    /**
+     * sharedStrings.xml 的 SAX 处理器，规则与 ReadOnlySharedStringsTable 相同：
+     * 每个 si 的文本为其中所有 t 元素（注音 rPh 中的除外）的内容
+     */
+    private static final class Loader extends DefaultHandler {
+        // 预分配偏移数组时最多信任的 uniqueCount
+        private static final int MAX_EXPECTED = 1 << 20;
+
+        private final StringBuilder text = new StringBuilder();
+        private SharedStringTable table;
+        private boolean inText;
+        private boolean inPhonetic;
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            switch (localName) {
+                case "sst":
+                    table = new SharedStringTable(expectedCount(attributes.getValue("uniqueCount")));
+                    break;
+                case "si":
+                    text.setLength(0);
+                    break;
+                case "t":
+                    inText = !inPhonetic;
+                    break;
+                case "rPh":
+                    inPhonetic = true;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) throws SAXException {
+            switch (localName) {
+                case "si":
+                    if (table == null) {
+                        table = new SharedStringTable(0);
+                    }
+                    try {
+                        table.add(text.toString());
+                    } catch (IOException e) {
+                        throw new SAXException("写入共享字符串临时文件失败: " + e.getMessage(), e);
+                    }
+                    break;
+                case "t":
+                    inText = false;
+                    break;
+                case "rPh":
+                    inPhonetic = false;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (inText) {
+                text.append(ch, start, length);
+            }
+        }
+
+        private static int expectedCount(String uniqueCount) {
+            if (uniqueCount == null) {
+                return 0;
+            }
+            try {
+                return Math.min(Math.max(Integer.parseInt(uniqueCount), 0), MAX_EXPECTED);
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.sws4cloud.pltools;
+
+/**
+ * 从源文件提取的字段：默认列（SRC_COL_*）和自动识别时匹配的标题名
+ */
+enum SourceField {
+    VARIETY(ExcelDataExtractor.SRC_COL_VARIETY, "VARIETY"),
+    LABEL(ExcelDataExtractor.SRC_COL_LABEL, "LABEL"),
+    CAT(ExcelDataExtractor.SRC_COL_CAT, "CAT"),
+    SIZE(ExcelDataExtractor.SRC_COL_SIZE, "SIZE"),
+    QUANTITY(ExcelDataExtractor.SRC_COL_QUANTITY, "QUANTITY OF TRAYS"),
+    NET_WEIGHT(ExcelDataExtractor.SRC_COL_NET_WEIGHT, "NET WEIGHT"),
+    CSP(ExcelDataExtractor.SRC_COL_CSP, "CSP"),
+    CSG(ExcelDataExtractor.SRC_COL_CSG, "CSG"),
+    PACKING_DATE(ExcelDataExtractor.SRC_COL_PACKING_DATE, "PACKING DATE"),
+    ID_PALLET(ExcelDataExtractor.SRC_COL_ID_PALLET, "ID PALLET"),
+    TEMP_RECORDER(ExcelDataExtractor.SRC_COL_TEMP_RECORDER, "TEMPERATURE RECORDER");
+
+    private final int defaultColumn;
+    private final String header;
+
+    SourceField(int defaultColumn, String header) {
+        this.defaultColumn = defaultColumn;
+        this.header = header;
+    }
+
+    int defaultColumn() {
+        return defaultColumn;
+    }
+
+    /**
+     * 内置的标题名（列映射文件可以追加别名）
+     */
+    String header() {
+        return header;
+    }
+}
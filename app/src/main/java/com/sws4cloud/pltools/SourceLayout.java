@@ -0,0 +1,98 @@
+package com.sws4cloud.pltools;
+
+import org.apache.poi.ss.util.CellReference;
+
+import java.util.Arrays;
+
+/**
+ * 编译后的源文件提取计划：每个 {@link SourceField} 对应的列索引。
+ * <p>
+ * 列索引展开为 final 字段，逐行提取时直接按数组下标读取 {@link RowValues}，不查任何映射表。
+ * 由 {@link ColumnMapping} 按标题行识别或按配置创建，同一布局的所有文件共用一个实例。
+ */
+final class SourceLayout {
+
+    /**
+     * 原有的固定布局（SRC_COL_*）
+     */
+    static final SourceLayout DEFAULT = new SourceLayout(defaultColumns(), "默认布局");
+
+    final int variety;
+    final int label;
+    final int cat;
+    final int size;
+    final int quantity;
+    final int netWeight;
+    final int csp;
+    final int csg;
+    final int packingDate;
+    final int idPallet;
+    final int tempRecorder;
+
+    private final int[] columns;
+    private final ColumnSet projection;
+    private final String origin;
+
+    /**
+     * @param columns 按 SourceField 顺序排列的列索引
+     * @param origin  布局来源（用于日志）
+     */
+    SourceLayout(int[] columns, String origin) {
+        this.columns = columns.clone();
+        this.origin = origin;
+        variety = column(SourceField.VARIETY);
+        label = column(SourceField.LABEL);
+        cat = column(SourceField.CAT);
+        size = column(SourceField.SIZE);
+        quantity = column(SourceField.QUANTITY);
+        netWeight = column(SourceField.NET_WEIGHT);
+        csp = column(SourceField.CSP);
+        csg = column(SourceField.CSG);
+        packingDate = column(SourceField.PACKING_DATE);
+        idPallet = column(SourceField.ID_PALLET);
+        tempRecorder = column(SourceField.TEMP_RECORDER);
+        projection = ColumnSet.of(this.columns);
+    }
+
+    static int[] defaultColumns() {
+        SourceField[] fields = SourceField.values();
+        int[] columns = new int[fields.length];
+        for (SourceField field : fields) {
+            columns[field.ordinal()] = field.defaultColumn();
+        }
+        return columns;
+    }
+
+    int column(SourceField field) {
+        return columns[field.ordinal()];
+    }
+
+    /**
+     * 需要解码的列（列投影）
+     */
+    ColumnSet columns() {
+        return projection;
+    }
+
+    /**
+     * 与另一个布局的列完全相同
+     */
+    boolean sameColumns(int[] other) {
+        return Arrays.equals(columns, other);
+    }
+
+    /**
+     * 例如 "默认布局 (VARIETY=C, LABEL=D, ...)"
+     */
+    String describe() {
+        StringBuilder text = new StringBuilder(origin).append(" (");
+        for (SourceField field : SourceField.values()) {
+            if (field.ordinal() > 0) {
+                text.append(", ");
+            }
+            text.append(field.name()).append('=')
+                    .append(CellReference.convertNumToColString(columns[field.ordinal()]));
+        }
+        return text.append(')').toString();
+    }
+}
@@ -0,0 +1,69 @@
+package com.sws4cloud.pltools;
+
+import org.apache.poi.UnsupportedFileFormatException;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+
+/**
+ * 以只读方式打开源工作簿。
+ * <p>
+ * 直接按文件打开 zip 包（随机访问中央目录），不经过 FileInputStream：
+ * 从输入流打开时 POI 会先把所有条目解压到内存，而按文件打开只在读取时解压用到的部分
+ * （workbook.xml、第一个工作表、sharedStrings 和 styles）。只读模式下关闭时不会尝试保存，
+ * 也不受 POI 对单个条目 100MB 的内存限制。
+ */
+final class SourcePackage implements Closeable {
+
+    private final OPCPackage pkg;
+
+    private SourcePackage(OPCPackage pkg) {
+        this.pkg = pkg;
+    }
+
+    /**
+     * 以只读方式打开源文件的 zip 包
+     */
+    static SourcePackage open(String filePath) throws IOException {
+        File file = existingFile(filePath);
+        try {
+            return new SourcePackage(OPCPackage.open(file, PackageAccess.READ));
+        } catch (InvalidFormatException | UnsupportedFileFormatException e) {
+            throw new IOException("无法打开工作簿: " + filePath + " - " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 以只读方式打开完整工作簿（DOM），用于对照和校验
+     */
+    static Workbook openWorkbook(String filePath) throws IOException {
+        return WorkbookFactory.create(existingFile(filePath), null, true);
+    }
+
+    OPCPackage getPackage() {
+        return pkg;
+    }
+
+    /**
+     * 放弃包（只读打开的包不能保存），释放文件句柄
+     */
+    @Override
+    public void close() {
+        pkg.revert();
+    }
+
+    private static File existingFile(String filePath) throws FileNotFoundException {
+        File file = new File(filePath);
+        if (!file.isFile()) {
+            throw new FileNotFoundException("文件未找到: " + filePath);
+        }
+        return file;
+    }
+}
@@ -0,0 +1,34 @@
+package com.sws4cloud.pltools;
+
+/**
+ * 单个文件处理流程中计时的阶段（按执行顺序）
+ */
+enum Stage {
+    // 从模板缓存复制出工作簿
+    TEMPLATE_LOAD("templateLoad"),
+    // 打开源文件包，读取共享字符串表和样式表
+    SOURCE_OPEN("sourceOpen"),
+    // 解析工作表并生成数据行
+    EXTRACTION("extraction"),
+    // 托盘汇总
+    AGGREGATION("aggregation"),
+    // 计算列和汇总行数值
+    COMPUTED_COLUMNS("computedColumns"),
+    // 填充数据行、汇总行和汇总工作表
+    FILL("fill"),
+    // 写出输出文件
+    WRITE("write");
+
+    private final String key;
+
+    Stage(String key) {
+        this.key = key;
+    }
+
+    /**
+     * 运行报告和 JMX 中使用的名称
+     */
+    String key() {
+        return key;
+    }
+}
@@ -0,0 +1,439 @@
+package com.sws4cloud.pltools;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * 基于 XSSF 事件模型（SAX）的工作表读取器。
+ * <p>
+ * 直接解析第一个工作表的 sheet XML，逐行回调，不构建整个工作簿的 DOM，
+ * 内存占用与行数无关。单元格按类型解码到 {@link RowValues}，文本化规则与 {@link ExcelDataExtractor} 中的
+ * getCellValue 保持一致（日期格式、数字格式、公式缓存值）。
+ * 共享字符串由 {@link SharedStringTable} 按需解码，只有投影内的单元格引用到的条目才会生成字符串。
+ */
+final class StreamingSheetReader {
+
+    /**
+     * 行回调接口
+     */
+    interface RowHandler {
+        /**
+         * @param rowNum 行索引（从0开始）
+         * @param values 该行的单元格值，仅在回调期间有效
+         */
+        void handleRow(int rowNum, RowValues values);
+    }
+
+    /**
+     * 标题行回调接口
+     */
+    interface HeaderHandler {
+        /**
+         * 读到标题行时调用；工作表中没有标题行时在第一个数据行之前以空行调用
+         *
+         * @param header 标题行的所有单元格值，仅在回调期间有效
+         * @return 数据行需要解码的列
+         */
+        ColumnSet handleHeader(RowValues header);
+    }
+
+    private StreamingSheetReader() {
+    }
+
+    /**
+     * 流式读取工作簿第一个工作表的标题行和之后的所有行
+     *
+     * @param headerRow 标题行索引，数据从下一行开始
+     * @param header    根据标题行返回数据行需要解码的列，其他列的单元格不保存值，行是否为空也只看这些列
+     * @param metrics   记录打开文件（SOURCE_OPEN）和解析工作表（EXTRACTION）的耗时
+     */
+    static void read(String filePath, int headerRow, HeaderHandler header, FileMetrics metrics, RowHandler handler)
+            throws IOException {
+        long stageStart = metrics.begin();
+        try (SourcePackage source = SourcePackage.open(filePath);
+             SharedStringTable sharedStrings = SharedStringTable.load(source.getPackage())) {
+            XSSFReader reader = new XSSFReader(source.getPackage());
+            boolean date1904 = readDate1904(reader);
+            StylesTable styles = reader.getStylesTable();
+
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                throw new IOException("工作簿中没有工作表: " + filePath);
+            }
+            try (CountingInputStream sheetStream = new CountingInputStream(sheets.next())) {
+                XMLReader xmlReader = XMLHelper.newXMLReader();
+                xmlReader.setContentHandler(new SheetHandler(sharedStrings, styles, date1904, headerRow, header, handler));
+                stageStart = metrics.record(Stage.SOURCE_OPEN, stageStart);
+                xmlReader.parse(new InputSource(sheetStream));
+                metrics.record(Stage.EXTRACTION, stageStart, sheetStream.count);
+            }
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("解析工作表失败: " + filePath + " - " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 读取 workbook.xml 中的 date1904 设置
+     */
+    private static boolean readDate1904(XSSFReader reader)
+            throws IOException, OpenXML4JException, SAXException, ParserConfigurationException {
+        boolean[] date1904 = new boolean[1];
+        try (InputStream workbookStream = reader.getWorkbookData()) {
+            XMLReader xmlReader = XMLHelper.newXMLReader();
+            xmlReader.setContentHandler(new DefaultHandler() {
+                @Override
+                public void startElement(String uri, String localName, String qName, Attributes attributes) {
+                    if ("workbookPr".equals(localName)) {
+                        String value = attributes.getValue("date1904");
+                        date1904[0] = "1".equals(value) || "true".equalsIgnoreCase(value);
+                    }
+                }
+            });
+            xmlReader.parse(new InputSource(workbookStream));
+        }
+        return date1904[0];
+    }
+
+    /**
+     * sheet XML 的 SAX 处理器
+     */
+    private static final class SheetHandler extends DefaultHandler {
+        // 1900 年和 1904 年日期系统的起点
+        private static final long EPOCH_DAY_1900 = LocalDate.of(1900, 1, 1).toEpochDay();
+        private static final long EPOCH_DAY_1904 = LocalDate.of(1904, 1, 1).toEpochDay();
+
+        private final SharedStringTable sharedStrings;
+        private final StylesTable styles;
+        private final boolean date1904;
+        private final int headerRow;
+        private final HeaderHandler headerHandler;
+        private final RowHandler handler;
+
+        // 样式索引 -> 是否为日期格式
+        private final Map<Integer, Boolean> dateStyleCache = new HashMap<>();
+        private final RowValues rowValues = new RowValues();
+        private final StringBuilder valueText = new StringBuilder();
+        private final StringBuilder formulaText = new StringBuilder();
+
+        // 数据行的列投影，读到标题行之后才确定
+        private ColumnSet columns;
+        private int rowNum = -1;
+        private boolean inHeader;
+        private boolean inRange;
+        private int column = -1;
+        // 当前单元格在列投影内，需要解码
+        private boolean capture;
+        private String cellType;
+        private int styleIndex;
+        private boolean hasValue;
+        private boolean hasFormula;
+        private boolean inValue;
+        private boolean inFormula;
+        private boolean inInlineString;
+        private boolean inInlineText;
+        private boolean inPhonetic;
+
+        SheetHandler(SharedStringTable sharedStrings, StylesTable styles, boolean date1904,
+                     int headerRow, HeaderHandler headerHandler, RowHandler handler) {
+            this.sharedStrings = sharedStrings;
+            this.styles = styles;
+            this.date1904 = date1904;
+            this.headerRow = headerRow;
+            this.headerHandler = headerHandler;
+            this.handler = handler;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            switch (localName) {
+                case "row":
+                    String r = attributes.getValue("r");
+                    rowNum = r != null ? Integer.parseInt(r) - 1 : rowNum + 1;
+                    inHeader = rowNum == headerRow;
+                    inRange = rowNum > headerRow;
+                    column = -1;
+                    rowValues.clear();
+                    if (inRange && columns == null) {
+                        // 没有标题行
+                        columns = headerHandler.handleHeader(rowValues);
+                    }
+                    break;
+                case "c":
+                    if (!inRange && !inHeader) {
+                        break;
+                    }
+                    String ref = attributes.getValue("r");
+                    column = ref != null ? columnIndex(ref) : column + 1;
+                    // 标题行解码所有单元格
+                    capture = inHeader || columns.contains(column);
+                    if (!capture) {
+                        break;
+                    }
+                    cellType = attributes.getValue("t");
+                    String s = attributes.getValue("s");
+                    styleIndex = s != null ? Integer.parseInt(s) : 0;
+                    hasValue = false;
+                    hasFormula = false;
+                    valueText.setLength(0);
+                    formulaText.setLength(0);
+                    break;
+                case "v":
+                    if (capture) {
+                        inValue = true;
+                        hasValue = true;
+                    }
+                    break;
+                case "f":
+                    if (capture) {
+                        inFormula = true;
+                        hasFormula = true;
+                    }
+                    break;
+                case "is":
+                    if (capture) {
+                        inInlineString = true;
+                        hasValue = true;
+                    }
+                    break;
+                case "t":
+                    inInlineText = inInlineString && !inPhonetic;
+                    break;
+                case "rPh":
+                    inPhonetic = true;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) throws SAXException {
+            switch (localName) {
+                case "v":
+                    inValue = false;
+                    break;
+                case "f":
+                    inFormula = false;
+                    break;
+                case "is":
+                    inInlineString = false;
+                    break;
+                case "t":
+                    inInlineText = false;
+                    break;
+                case "rPh":
+                    inPhonetic = false;
+                    break;
+                case "c":
+                    if (capture) {
+                        storeCell();
+                        capture = false;
+                    }
+                    break;
+                case "row":
+                    if (inHeader) {
+                        columns = headerHandler.handleHeader(rowValues);
+                    } else if (inRange) {
+                        handler.handleRow(rowNum, rowValues);
+                    }
+                    inHeader = false;
+                    inRange = false;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (inValue || inInlineText) {
+                valueText.append(ch, start, length);
+            } else if (inFormula) {
+                formulaText.append(ch, start, length);
+            }
+        }
+
+        /**
+         * 按类型保存当前单元格，文本形式留到读取时再生成
+         */
+        private void storeCell() throws SAXException {
+            if (hasFormula) {
+                // 公式单元格：字符串结果直接保存，数值结果保存数值，其他保存公式文本
+                if ("str".equals(cellType)) {
+                    rowValues.setText(column, valueText.toString());
+                } else if (cellType == null || "n".equals(cellType)) {
+                    rowValues.setFormulaNumber(column, hasText() ? parseNumber(valueText) : 0.0);
+                } else {
+                    rowValues.setText(column, formulaText.toString());
+                }
+                return;
+            }
+
+            if (cellType == null || "n".equals(cellType)) {
+                if (!hasValue) {
+                    rowValues.setBlank(column);
+                    return;
+                }
+                // 空的 v 元素按 0 处理，与 DOM 读取一致
+                double num = hasText() ? parseNumber(valueText) : 0.0;
+                if (isDateStyle(styleIndex) && DateUtil.isValidExcelDate(num)) {
+                    rowValues.setDate(column, excelEpochDay(num, date1904));
+                } else {
+                    rowValues.setNumber(column, num);
+                }
+                return;
+            }
+
+            switch (cellType) {
+                case "s":
+                    // 没有 v（或 v 为空）的共享字符串单元格按空白处理，与 DOM 读取一致
+                    if (!hasText()) {
+                        rowValues.setBlank(column);
+                        break;
+                    }
+                    int index = (int) parseNumber(valueText);
+                    try {
+                        rowValues.setText(column, sharedStrings.get(index).trim());
+                    } catch (IOException e) {
+                        throw new SAXException("读取共享字符串失败: " + e.getMessage(), e);
+                    }
+                    break;
+                case "inlineStr":
+                case "str":
+                    rowValues.setText(column, valueText.toString().trim());
+                    break;
+                case "b":
+                    rowValues.setText(column, String.valueOf(hasValue && "1".equals(valueText.toString())));
+                    break;
+                default:
+                    rowValues.setBlank(column);
+                    break;
+            }
+        }
+
+        /**
+         * 单元格有非空的 v 元素
+         */
+        private boolean hasText() {
+            return hasValue && valueText.length() > 0;
+        }
+
+        private boolean isDateStyle(int index) {
+            return dateStyleCache.computeIfAbsent(index, i -> {
+                if (styles == null || i >= styles.getNumCellStyles()) {
+                    return false;
+                }
+                XSSFCellStyle style = styles.getStyleAt(i);
+                return style != null && DateUtil.isADateFormat(style.getDataFormat(), style.getDataFormatString());
+            });
+        }
+
+        /**
+         * 解析 v 元素中的数值：纯整数直接从字符累加，不创建字符串；其他格式交给 Double.parseDouble
+         */
+        private static double parseNumber(CharSequence text) {
+            int length = text.length();
+            if (length == 0 || length > 15) {
+                return Double.parseDouble(text.toString());
+            }
+            int i = text.charAt(0) == '-' ? 1 : 0;
+            if (i == length) {
+                return Double.parseDouble(text.toString());
+            }
+            long value = 0;
+            for (; i < length; i++) {
+                char c = text.charAt(i);
+                if (c < '0' || c > '9') {
+                    return Double.parseDouble(text.toString());
+                }
+                value = value * 10 + (c - '0');
+            }
+            // -0 保留负号，与 Double.parseDouble 相同
+            return text.charAt(0) == '-' ? -(double) value : (double) value;
+        }
+
+        /**
+         * Excel 日期序列号对应的 epoch day，与 DateUtil.getJavaDate 得到的日期相同（含 1900 年闰年问题的修正、
+         * 按毫秒四舍五入进位到下一天），不创建 Date 或 Calendar
+         */
+        private static int excelEpochDay(double serial, boolean date1904) {
+            int wholeDays = (int) Math.floor(serial);
+            int millisecondsInDay = (int) ((serial - wholeDays) * DateUtil.DAY_MILLISECONDS + 0.5);
+            int dayAdjust = date1904 ? 1 : wholeDays < 61 ? 0 : -1;
+            long day = (date1904 ? EPOCH_DAY_1904 : EPOCH_DAY_1900) + wholeDays + dayAdjust - 1;
+            if (millisecondsInDay >= DateUtil.DAY_MILLISECONDS) {
+                day++;
+            }
+            return (int) day;
+        }
+
+        /**
+         * 把 "AB12" 这样的单元格引用转换为列索引（从0开始）
+         */
+        private static int columnIndex(String ref) {
+            int col = 0;
+            for (int i = 0; i < ref.length(); i++) {
+                char c = ref.charAt(i);
+                if (c < 'A' || c > 'Z') {
+                    break;
+                }
+                col = col * 26 + (c - 'A' + 1);
+            }
+            return col - 1;
+        }
+    }
+
+    /**
+     * 统计读取的（解压后的）字节数
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.sws4cloud.pltools;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 字符串字典：为重复出现的取值分配连续的整数编号，并返回同一个规范化的字符串实例。
+ * <p>
+ * 品种、品牌、规格、等级等列的取值在一个文件中重复成千上万次，经字典编码后所有行共享同一份字符串，
+ * 编号可以直接作为汇总时的键。非线程安全，每个提取任务（单个线程）使用自己的实例。
+ */
+final class StringDictionary {
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+
+    /**
+     * 取值的编号，第一次出现时分配新编号
+     */
+    int idOf(String value) {
+        Integer id = ids.get(value);
+        if (id == null) {
+            id = values.size();
+            ids.put(value, id);
+            values.add(value);
+        }
+        return id;
+    }
+
+    /**
+     * 返回与 value 相等的规范化实例
+     */
+    String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        return values.get(idOf(value));
+    }
+
+    String valueOf(int id) {
+        return values.get(id);
+    }
+
+    int size() {
+        return values.size();
+    }
+
+    /**
+     * 把本字典的所有取值加入 target，返回 本字典编号 -> target 编号 的映射
+     */
+    int[] remapInto(StringDictionary target) {
+        int[] remap = new int[values.size()];
+        for (int id = 0; id < remap.length; id++) {
+            remap[id] = target.idOf(values.get(id));
+        }
+        return remap;
+    }
+}
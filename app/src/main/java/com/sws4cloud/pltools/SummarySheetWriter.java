@@ -0,0 +1,101 @@
+package com.sws4cloud.pltools;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+/**
+ * 把 {@link PalletAggregation} 的分组结果写成一个独立的汇总工作表。
+ * <p>
+ * 依次输出按托盘、托盘×品种、托盘×规格、装箱日期的四个分组表，各表之间空一行。
+ */
+final class SummarySheetWriter {
+
+    // 汇总工作表名称（模板中已有同名工作表时会被替换）
+    static final String SHEET_NAME = "Summary";
+
+    private final Sheet sheet;
+    private final CellStyle headerStyle;
+    private final CellStyle textStyle;
+    private final CellStyle integerStyle;
+    private final CellStyle numberStyle;
+    private int nextRow;
+
+    private SummarySheetWriter(Sheet sheet, CellStyleRegistry styles) {
+        this.sheet = sheet;
+        this.headerStyle = styles.get(CellStyleRegistry.CENTERED);
+        this.textStyle = styles.get(CellStyleRegistry.TEXT);
+        this.integerStyle = styles.get(CellStyleRegistry.INTEGER);
+        this.numberStyle = styles.get(CellStyleRegistry.NUMBER);
+    }
+
+    /**
+     * 在工作簿末尾写出汇总工作表
+     */
+    static void write(XSSFWorkbook workbook, PalletAggregation aggregation) {
+        int existing = workbook.getSheetIndex(SHEET_NAME);
+        if (existing >= 0) {
+            workbook.removeSheetAt(existing);
+        }
+        SummarySheetWriter writer = new SummarySheetWriter(workbook.createSheet(SHEET_NAME),
+                new CellStyleRegistry(workbook));
+
+        writer.header("Pallet No.");
+        aggregation.forEachPallet(writer::group);
+
+        writer.header("Pallet No.", "Variety");
+        aggregation.forEachPalletVariety(writer::group);
+
+        writer.header("Pallet No.", "Size");
+        aggregation.forEachPalletSize(writer::group);
+
+        writer.header("Packing Date");
+        aggregation.forEachPackingDate(writer::group);
+
+        for (int col = 0; col < 5; col++) {
+            writer.sheet.setColumnWidth(col, 16 * 256);
+        }
+    }
+
+    /**
+     * 分组表的标题行（第一个表之前不空行）
+     */
+    private void header(String... keyNames) {
+        if (nextRow > 0) {
+            nextRow++;
+        }
+        Row row = sheet.createRow(nextRow++);
+        int col = 0;
+        for (String keyName : keyNames) {
+            setText(row, col++, keyName, headerStyle);
+        }
+        setText(row, col++, "Cases", headerStyle);
+        setText(row, col++, "Net Kg", headerStyle);
+        setText(row, col, "Rows", headerStyle);
+    }
+
+    private void group(String[] keys, long cases, double netKg, int rows) {
+        Row row = sheet.createRow(nextRow++);
+        int col = 0;
+        for (String key : keys) {
+            setText(row, col++, key, textStyle);
+        }
+        setNumber(row, col++, cases, integerStyle);
+        setNumber(row, col++, netKg, numberStyle);
+        setNumber(row, col, rows, integerStyle);
+    }
+
+    private static void setText(Row row, int col, String value, CellStyle style) {
+        Cell cell = row.createCell(col);
+        cell.setCellValue(value);
+        cell.setCellStyle(style);
+    }
+
+    private static void setNumber(Row row, int col, double value, CellStyle style) {
+        Cell cell = row.createCell(col);
+        cell.setCellValue(value);
+        cell.setCellStyle(style);
+    }
+}
@@ -0,0 +1,32 @@
+package com.sws4cloud.pltools;
+
+/**
+ * 写入模板的字段及其默认列（TGT_COL_*）
+ */
+enum TargetField {
+    SPECIES(ExcelDataExtractor.TGT_COL_SPECIES),
+    PALLET_NO(ExcelDataExtractor.TGT_COL_PALLET_NO),
+    BRAND(ExcelDataExtractor.TGT_COL_BRAND),
+    VARIETY(ExcelDataExtractor.TGT_COL_VARIETY),
+    SIZE(ExcelDataExtractor.TGT_COL_SIZE),
+    NET_WEIGHT(ExcelDataExtractor.TGT_COL_NW),
+    CASES(ExcelDataExtractor.TGT_COL_CASES),
+    TOTAL_NET_WEIGHT(ExcelDataExtractor.TGT_COL_TOTAL_NW),
+    CSG_CODE(ExcelDataExtractor.TGT_COL_CSG_CODE),
+    CSP_CODE(ExcelDataExtractor.TGT_COL_CSP_CODE),
+    PACKING_DATE(ExcelDataExtractor.TGT_COL_PACKING_DATE),
+    CATEGORY(ExcelDataExtractor.TGT_COL_CATEGORY),
+    THERMOGRAPH(ExcelDataExtractor.TGT_COL_THERMOGRAPH),
+    PALLET_CASES(ExcelDataExtractor.TGT_COL_TOTAL_CASES_PALLET),
+    PALLETS(ExcelDataExtractor.TGT_COL_PALLETS);
+
+    private final int defaultColumn;
+
+    TargetField(int defaultColumn) {
+        this.defaultColumn = defaultColumn;
+    }
+
+    int defaultColumn() {
+        return defaultColumn;
+    }
+}
@@ -0,0 +1,95 @@
+package com.sws4cloud.pltools;
+
+import org.apache.poi.ss.util.CellReference;
+
+/**
+ * 编译后的模板填充计划：每个 {@link TargetField} 写入的列索引，以及计算列公式中引用的列名。
+ * <p>
+ * 与 {@link SourceLayout} 一样展开为 final 字段，逐行填充时不查映射表；各列样式按列索引放在数组中。
+ * 数据起始行（TARGET_START_ROW）和第12行汇总单元格属于模板本身，不在这里配置。
+ */
+final class TargetLayout {
+
+    /**
+     * 原有的固定布局（TGT_COL_*）
+     */
+    static final TargetLayout DEFAULT = new TargetLayout(defaultColumns());
+
+    final int species;
+    final int palletNo;
+    final int brand;
+    final int variety;
+    final int size;
+    final int netWeight;
+    final int cases;
+    final int totalNetWeight;
+    final int csgCode;
+    final int cspCode;
+    final int packingDate;
+    final int category;
+    final int thermograph;
+    final int palletCases;
+    final int pallets;
+
+    // 数据行中最大的列索引（创建单元格和应用样式的范围）
+    final int lastColumn;
+
+    // 计算列公式引用的列名，例如 "F"
+    final String netWeightRef;
+    final String casesRef;
+    final String palletCasesRef;
+
+    /**
+     * @param columns 按 TargetField 顺序排列的列索引，不能重复
+     */
+    TargetLayout(int[] columns) {
+        boolean[] used = new boolean[maxOf(columns) + 1];
+        for (TargetField field : TargetField.values()) {
+            int col = columns[field.ordinal()];
+            if (col < 0) {
+                throw new IllegalArgumentException("无效的目标列: " + field.name());
+            }
+            if (used[col]) {
+                throw new IllegalArgumentException("目标列重复: " + field.name() + "="
+                        + CellReference.convertNumToColString(col));
+            }
+            used[col] = true;
+        }
+        species = columns[TargetField.SPECIES.ordinal()];
+        palletNo = columns[TargetField.PALLET_NO.ordinal()];
+        brand = columns[TargetField.BRAND.ordinal()];
+        variety = columns[TargetField.VARIETY.ordinal()];
+        size = columns[TargetField.SIZE.ordinal()];
+        netWeight = columns[TargetField.NET_WEIGHT.ordinal()];
+        cases = columns[TargetField.CASES.ordinal()];
+        totalNetWeight = columns[TargetField.TOTAL_NET_WEIGHT.ordinal()];
+        csgCode = columns[TargetField.CSG_CODE.ordinal()];
+        cspCode = columns[TargetField.CSP_CODE.ordinal()];
+        packingDate = columns[TargetField.PACKING_DATE.ordinal()];
+        category = columns[TargetField.CATEGORY.ordinal()];
+        thermograph = columns[TargetField.THERMOGRAPH.ordinal()];
+        palletCases = columns[TargetField.PALLET_CASES.ordinal()];
+        pallets = columns[TargetField.PALLETS.ordinal()];
+        lastColumn = used.length - 1;
+        netWeightRef = CellReference.convertNumToColString(netWeight);
+        casesRef = CellReference.convertNumToColString(cases);
+        palletCasesRef = CellReference.convertNumToColString(palletCases);
+    }
+
+    static int[] defaultColumns() {
+        TargetField[] fields = TargetField.values();
+        int[] columns = new int[fields.length];
+        for (TargetField field : fields) {
+            columns[field.ordinal()] = field.defaultColumn();
+        }
+        return columns;
+    }
+
+    private static int maxOf(int[] columns) {
+        int max = 0;
+        for (int col : columns) {
+            max = Math.max(max, col);
+        }
+        return max;
+    }
+}
@@ -0,0 +1,176 @@
+package com.sws4cloud.pltools;
+
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 模板文件缓存。
+ * <p>
+ * 模板内容只从磁盘或类路径读取一次并校验，之后每个输出文件从内存中的字节生成独立的工作簿副本，
+ * 批处理中的所有文件以及同一进程中的多次执行共享同一份缓存。
+ * 缓存的是文件字节而不是解析后的工作簿：XSSFWorkbook 不能复制，每个输出文件仍要从内存重新解析一次模板
+ * （单工作表的小模板预热后约 10ms，模板越大越多；相对单个文件的处理时间很小），省去的只是磁盘读取和重复校验。
+ * 文件模板在修改时间或大小变化时重新读取，内容哈希不变时继续使用原缓存。
+ * 路径以 {@value #CLASSPATH_PREFIX} 开头时从类路径加载（支持从 jar 中运行）。
+ */
+final class TemplateCache {
+
+    // 类路径模板的路径前缀
+    static final String CLASSPATH_PREFIX = "classpath:";
+
+    private static final Map<String, Template> CACHE = new ConcurrentHashMap<>();
+
+    private TemplateCache() {
+    }
+
+    /**
+     * 已加载并校验过的模板
+     */
+    static final class Template {
+        private final String location;
+        private final byte[] content;
+        private final String hash;
+        private final long lastModified;
+        private final long length;
+
+        private Template(String location, byte[] content, String hash, long lastModified, long length) {
+            this.location = location;
+            this.content = content;
+            this.hash = hash;
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+
+        /**
+         * 为单个输出文件创建独立的工作簿副本（每次调用都从内存中的字节重新解析，不访问磁盘）
+         */
+        XSSFWorkbook newWorkbook() throws IOException {
+            return new XSSFWorkbook(new ByteArrayInputStream(content));
+        }
+
+        /**
+         * 模板内容的 SHA-256 哈希（十六进制）
+         */
+        String getHash() {
+            return hash;
+        }
+
+        String getLocation() {
+            return location;
+        }
+
+        private Template withTimestamp(long lastModified, long length) {
+            return new Template(location, content, hash, lastModified, length);
+        }
+    }
+
+    /**
+     * 获取模板，必要时加载或重新加载
+     *
+     * @param templatePath 文件路径，或 classpath: 开头的类路径资源
+     */
+    static Template get(String templatePath) throws IOException {
+        if (templatePath.startsWith(CLASSPATH_PREFIX)) {
+            Template cached = CACHE.get(templatePath);
+            if (cached != null) {
+                return cached;
+            }
+            Template loaded = load(templatePath, readClasspath(templatePath.substring(CLASSPATH_PREFIX.length())), 0L);
+            Template existing = CACHE.putIfAbsent(templatePath, loaded);
+            return existing != null ? existing : loaded;
+        }
+
+        File file = new File(templatePath).getAbsoluteFile();
+        if (!file.isFile()) {
+            throw new FileNotFoundException("模板文件未找到: " + templatePath);
+        }
+        String key = file.getPath();
+        // 同一模板由多个工作线程同时请求时只加载一次
+        try {
+            return CACHE.compute(key, (k, cached) -> {
+                try {
+                    return refresh(file, cached);
+                } catch (IOException e) {
+                    throw new TemplateLoadException(e);
+                }
+            });
+        } catch (TemplateLoadException e) {
+            throw (IOException) e.getCause();
+        }
+    }
+
+    /**
+     * 检查文件模板是否变化，变化时重新读取
+     */
+    private static Template refresh(File file, Template cached) throws IOException {
+        long lastModified = file.lastModified();
+        long length = file.length();
+        if (cached != null && cached.lastModified == lastModified && cached.length == length) {
+            return cached;
+        }
+
+        byte[] content = Files.readAllBytes(file.toPath());
+        if (cached != null && cached.hash.equals(sha256(content))) {
+            // 只是时间戳变化，内容相同
+            return cached.withTimestamp(lastModified, length);
+        }
+        return load(file.getPath(), content, lastModified);
+    }
+
+    /**
+     * 校验模板内容并创建缓存项
+     */
+    private static Template load(String location, byte[] content, long lastModified) throws IOException {
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(content))) {
+            if (workbook.getNumberOfSheets() == 0) {
+                throw new IOException("模板文件中没有工作表: " + location);
+            }
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("模板文件无效: " + location + " - " + e.getMessage(), e);
+        }
+        return new Template(location, content, sha256(content), lastModified, content.length);
+    }
+
+    private static byte[] readClasspath(String resourcePath) throws IOException {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if (classLoader == null) {
+            classLoader = TemplateCache.class.getClassLoader();
+        }
+        try (InputStream in = classLoader.getResourceAsStream(resourcePath)) {
+            if (in == null) {
+                throw new FileNotFoundException("类路径中未找到模板文件: " + resourcePath);
+            }
+            return in.readAllBytes();
+        }
+    }
+
+    static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 在 ConcurrentHashMap.compute 中传递加载异常
+     */
+    private static final class TemplateLoadException extends RuntimeException {
+        TemplateLoadException(IOException cause) {
+            super(cause);
+        }
+    }
+}
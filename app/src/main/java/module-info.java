@@ -5,6 +5,10 @@ module com.sws4cloud.pltools {
     requires javafx.swing;
     requires javafx.media;
     requires org.apache.poi.poi;
+    requires org.apache.poi.ooxml;
+    requires java.xml;
+    requires java.management;
+    requires jdk.jfr;
 
     opens com.sws4cloud.pltools to javafx.fxml;
     exports com.sws4cloud.pltools;
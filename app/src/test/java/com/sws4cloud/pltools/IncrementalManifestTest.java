@@ -0,0 +1,186 @@
+package com.sws4cloud.pltools;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 增量清单：源文件内容、模板和输出文件变化时重新生成，未变化时跳过
+ */
+class IncrementalManifestTest {
+
+    @TempDir
+    Path dir;
+
+    private File source;
+    private File output;
+    private File outputDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        source = write("source.xlsx", "version 1");
+        outputDir = dir.resolve("out").toFile();
+        outputDir.mkdirs();
+        output = new File(outputDir, "source.xlsx");
+        Files.writeString(output.toPath(), "output");
+        IncrementalManifest manifest = IncrementalManifest.load(outputDir, "template-1", "options-1");
+        manifest.record(source, manifest.check(source, output), output);
+        manifest.save();
+    }
+
+    @Test
+    void unchangedSourceIsSkipped() throws IOException {
+        IncrementalManifest manifest = IncrementalManifest.load(outputDir, "template-1", "options-1");
+        assertFalse(manifest.isTemplateChanged());
+        assertTrue(manifest.check(source, output).upToDate());
+    }
+
+    @Test
+    void timestampOnlyChangeIsSkipped() throws IOException {
+        assertTrue(source.setLastModified(source.lastModified() + 60_000));
+        IncrementalManifest manifest = IncrementalManifest.load(outputDir, "template-1", "options-1");
+        assertTrue(manifest.check(source, output).upToDate());
+    }
+
+    @Test
+    void contentChangeInvalidates() throws IOException {
+        String before = IncrementalManifest.hash(source);
+        long lastModified = source.lastModified();
+        // 大小不变，修改时间显式推后（避免文件系统时间精度使其看起来未变）
+        Files.writeString(source.toPath(), "version 2", StandardCharsets.UTF_8);
+        assertTrue(source.setLastModified(lastModified + 60_000));
+
+        IncrementalManifest.Check check = IncrementalManifest.load(outputDir, "template-1", "options-1").check(source, output);
+        assertFalse(check.upToDate());
+        assertNotEquals(before, check.hash());
+        assertEquals(IncrementalManifest.hash(source), check.hash());
+    }
+
+    @Test
+    void sourceOverwrittenDuringProcessingIsNotSkipped() throws IOException {
+        IncrementalManifest manifest = IncrementalManifest.load(outputDir, "template-1", "options-1");
+        Files.writeString(source.toPath(), "version 2", StandardCharsets.UTF_8);
+        IncrementalManifest.Check check = manifest.check(source, output);
+        assertFalse(check.upToDate());
+
+        // 处理期间源文件再次被覆盖，记录的仍是检查时的哈希和时间戳
+        long lastModified = source.lastModified();
+        Files.writeString(source.toPath(), "version 3", StandardCharsets.UTF_8);
+        assertTrue(source.setLastModified(lastModified + 60_000));
+        manifest.record(source, check, output);
+        manifest.save();
+
+        assertFalse(IncrementalManifest.load(outputDir, "template-1", "options-1").check(source, output).upToDate());
+    }
+
+    @Test
+    void templateChangeInvalidatesAll() throws IOException {
+        IncrementalManifest manifest = IncrementalManifest.load(outputDir, "template-2", "options-1");
+        assertTrue(manifest.isTemplateChanged());
+        assertFalse(manifest.check(source, output).upToDate());
+    }
+
+    @Test
+    void optionsChangeInvalidatesAll() throws IOException {
+        IncrementalManifest manifest = IncrementalManifest.load(outputDir, "template-1", "options-2");
+        assertFalse(manifest.isTemplateChanged());
+        assertTrue(manifest.isOptionsChanged());
+        assertFalse(manifest.check(source, output).upToDate());
+    }
+
+    @Test
+    void optionsHashCoversOutputSettings() throws IOException {
+        ColumnMapping defaults = ColumnMapping.defaults();
+        String base = IncrementalManifest.optionsHash(ExtractionOptions.defaults(), defaults);
+        assertEquals(base, IncrementalManifest.optionsHash(ExtractionOptions.defaults().setParallelism(4), defaults));
+        assertNotEquals(base, IncrementalManifest.optionsHash(ExtractionOptions.defaults()
+                .setComputedColumnMode(ComputedColumnMode.VALUES), defaults));
+        assertNotEquals(base, IncrementalManifest.optionsHash(ExtractionOptions.defaults()
+                .setSummarySheet(!ExtractionOptions.defaults().isSummarySheet()), defaults));
+
+        Path mapping = dir.resolve("mapping.properties");
+        Files.writeString(mapping, "target.PALLET_NO=B\n", StandardCharsets.UTF_8);
+        String mapped = IncrementalManifest.optionsHash(ExtractionOptions.defaults(),
+                ColumnMapping.get(mapping.toString()));
+        assertNotEquals(base, mapped);
+        // 目标列改变后映射内容不同
+        Files.writeString(mapping, "target.PALLET_NO=B\ntarget.SPECIES=Z\n", StandardCharsets.UTF_8);
+        assertTrue(mapping.toFile().setLastModified(mapping.toFile().lastModified() + 60_000));
+        assertNotEquals(mapped, IncrementalManifest.optionsHash(ExtractionOptions.defaults(),
+                ColumnMapping.get(mapping.toString())));
+    }
+
+    @Test
+    void missingOrRenamedOutputInvalidates() throws IOException {
+        IncrementalManifest manifest = IncrementalManifest.load(outputDir, "template-1", "options-1");
+        File other = new File(outputDir, "other.xlsx");
+        Files.writeString(other.toPath(), "output");
+        assertFalse(manifest.check(source, other).upToDate());
+
+        Files.delete(output.toPath());
+        assertFalse(manifest.check(source, output).upToDate());
+    }
+
+    @Test
+    void extractionSkipsUnchangedAndRegeneratesChanged() throws IOException {
+        Path sourceDir = dir.resolve("src");
+        Files.createDirectories(sourceDir);
+        new TestWorkbooks().dataRow(15, "P1", "").write(sourceDir.resolve("a.xlsx"));
+        new TestWorkbooks().dataRow(15, "P2", "").write(sourceDir.resolve("b.xlsx"));
+        String template = TestWorkbooks.template(dir.resolve("template.xlsx")).toString();
+        String outputPath = dir.resolve("result").toString();
+        ExtractionOptions options = ExtractionOptions.defaults().setIncremental(true).setRunReport(false);
+
+        assertEquals(List.of(false, false), skipped(run(template, sourceDir, outputPath, options)));
+        assertEquals(List.of(true, true), skipped(run(template, sourceDir, outputPath, options)));
+
+        // 修改源文件内容，或删除输出文件，只重新生成对应的文件
+        new TestWorkbooks().dataRow(15, "P3", "").dataRow(16, "P3", "").write(sourceDir.resolve("a.xlsx"));
+        Files.delete(Path.of(outputPath, "b.xlsx"));
+        List<ExcelDataExtractor.FileResult> results = run(template, sourceDir, outputPath, options);
+        assertEquals(List.of(false, false), skipped(results));
+        assertTrue(results.stream().allMatch(ExcelDataExtractor.FileResult::isSuccess));
+        assertEquals(List.of(true, true), skipped(run(template, sourceDir, outputPath, options)));
+
+        // 输出设置变化后全部重新生成
+        options.setComputedColumnMode(ComputedColumnMode.VALUES);
+        assertEquals(List.of(false, false), skipped(run(template, sourceDir, outputPath, options)));
+        assertEquals(List.of(true, true), skipped(run(template, sourceDir, outputPath, options)));
+    }
+
+    private static List<ExcelDataExtractor.FileResult> run(String template, Path sourceDir, String outputPath,
+                                                           ExtractionOptions options) {
+        return ExcelDataExtractor.executeDataExtraction(template, sourceDir.toString(), outputPath, options,
+                new ExcelDataExtractor.LogCallback() {
+                    @Override
+                    public void logMessage(String message) {
+                    }
+
+                    @Override
+                    public void logError(String message) {
+                    }
+                });
+    }
+
+    private static List<Boolean> skipped(List<ExcelDataExtractor.FileResult> results) {
+        return results.stream().map(ExcelDataExtractor.FileResult::isSkipped).toList();
+    }
+
+    private File write(String name, String content) throws IOException {
+        Path path = dir.resolve(name);
+        Files.writeString(path, content, StandardCharsets.UTF_8);
+        return path.toFile();
+    }
+}
@@ -0,0 +1,118 @@
+package com.sws4cloud.pltools;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 开放寻址聚合表与 HashMap 参照实现的对照
+ */
+class LongAggregateTableTest {
+
+    /**
+     * 参照实现的累加值：箱数、净重、行数
+     */
+    private static final class Sums {
+        long cases;
+        double netKg;
+        int rows;
+
+        void add(long caseCount, double netWeight, int rowCount) {
+            cases += caseCount;
+            netKg += netWeight;
+            rows += rowCount;
+        }
+    }
+
+    @Test
+    void matchesReferenceAcrossResizes() {
+        // 初始容量很小，插入过程中多次扩容哈希槽和 entry 数组
+        LongAggregateTable table = new LongAggregateTable(1);
+        Map<Long, Sums> reference = new LinkedHashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 50_000; i++) {
+            long key = randomKey(random);
+            long cases = random.nextInt(100);
+            double netKg = random.nextDouble() * 20;
+            int entry = table.add(key, cases, netKg, 1);
+            reference.computeIfAbsent(key, k -> new Sums()).add(cases, netKg, 1);
+            assertEquals(entry, table.indexOf(key));
+        }
+        assertMatches(reference, table);
+    }
+
+    @Test
+    void collidingKeysAreProbed() {
+        LongAggregateTable table = new LongAggregateTable();
+        Map<Long, Sums> reference = new LinkedHashMap<>();
+        // 低位相同、只有高位不同的键，以及边界值
+        long[] keys = {0L, 1L << 32, 2L << 32, 3L << 32, -1L, Long.MIN_VALUE, Long.MAX_VALUE, 1L << 40 | 7};
+        for (int round = 0; round < 3; round++) {
+            for (long key : keys) {
+                table.add(key, round + 1, 0.5, 1);
+                reference.computeIfAbsent(key, k -> new Sums()).add(round + 1, 0.5, 1);
+            }
+        }
+        assertMatches(reference, table);
+        assertEquals(-1, table.indexOf(4L << 32));
+        assertEquals(0, table.casesOf(12345L));
+    }
+
+    @Test
+    void addAllMapsKeys() {
+        Random random = new Random(7);
+        LongAggregateTable target = new LongAggregateTable();
+        LongAggregateTable other = new LongAggregateTable();
+        Map<Long, Sums> reference = new LinkedHashMap<>();
+        for (int i = 0; i < 2_000; i++) {
+            long key = random.nextInt(300);
+            target.add(key, 1, 1.25, 1);
+            reference.computeIfAbsent(key, k -> new Sums()).add(1, 1.25, 1);
+        }
+        for (int i = 0; i < 2_000; i++) {
+            other.add(random.nextInt(300), 2, 0.5, 1);
+        }
+        // 键经映射后再并入（模拟字典编号转换）
+        for (int entry = 0; entry < other.size(); entry++) {
+            reference.computeIfAbsent(other.key(entry) + 1000, k -> new Sums())
+                    .add(other.cases(entry), other.netKg(entry), other.rows(entry));
+        }
+        target.addAll(other, key -> key + 1000);
+        assertMatches(reference, target);
+    }
+
+    private static long randomKey(Random random) {
+        switch (random.nextInt(3)) {
+            case 0:
+                return random.nextInt(1000);
+            case 1:
+                return ((long) random.nextInt(200) << 32) | random.nextInt(50);
+            default:
+                return random.nextLong();
+        }
+    }
+
+    /**
+     * 分组、顺序（第一次出现的顺序）和累加值都与参照实现相同
+     */
+    private static void assertMatches(Map<Long, Sums> reference, LongAggregateTable table) {
+        assertEquals(reference.size(), table.size());
+        List<Long> keys = new ArrayList<>(reference.keySet());
+        for (int entry = 0; entry < keys.size(); entry++) {
+            long key = keys.get(entry);
+            Sums sums = reference.get(key);
+            assertEquals(key, table.key(entry));
+            assertEquals(entry, table.indexOf(key));
+            assertEquals(sums.cases, table.cases(entry));
+            assertEquals(sums.cases, table.casesOf(key));
+            assertEquals(sums.netKg, table.netKg(entry));
+            assertEquals(sums.rows, table.rows(entry));
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.sws4cloud.pltools;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 命令行入口在各类结果下的退出码
+ */
+class PLToolsCliTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void help() {
+        assertEquals(PLToolsCli.EXIT_OK, run("--help"));
+    }
+
+    @Test
+    void allFilesSucceeded() throws IOException {
+        Path source = sourceDir();
+        new TestWorkbooks().dataRow(15, "P1", "").write(source.resolve("a.xlsx"));
+        Path output = dir.resolve("out");
+
+        assertEquals(PLToolsCli.EXIT_OK, run("--source", source.toString(), "--output", output.toString(),
+                "--template", template()));
+        assertTrue(Files.isRegularFile(output.resolve("a.xlsx")));
+        assertTrue(report(output).contains("\"exitCode\": 0"));
+    }
+
+    @Test
+    void emptySourceDirectory() throws IOException {
+        assertEquals(PLToolsCli.EXIT_OK, run("--source", sourceDir().toString(),
+                "--output", dir.resolve("out").toString(), "--template", template()));
+    }
+
+    @Test
+    void someFilesFailed() throws IOException {
+        Path source = sourceDir();
+        new TestWorkbooks().dataRow(15, "P1", "").write(source.resolve("a.xlsx"));
+        Files.writeString(source.resolve("broken.xlsx"), "not a workbook");
+        Path output = dir.resolve("out");
+
+        assertEquals(PLToolsCli.EXIT_FILES_FAILED, run("--source", source.toString(),
+                "--output", output.toString(), "--template", template()));
+        assertTrue(report(output).contains("\"exitCode\": 1"));
+    }
+
+    @Test
+    void usageErrors() throws IOException {
+        String source = sourceDir().toString();
+        String output = dir.resolve("out").toString();
+        assertEquals(PLToolsCli.EXIT_USAGE, run("--output", output));
+        assertEquals(PLToolsCli.EXIT_USAGE, run("--source", source, "--output", output, "--unknown", "x"));
+        assertEquals(PLToolsCli.EXIT_USAGE, run("--source", source, "--output", output, "--parallelism", "two"));
+        assertEquals(PLToolsCli.EXIT_USAGE, run("--source", source, "--output", output, "--mode", "sometimes"));
+        assertEquals(PLToolsCli.EXIT_USAGE, run("--source", source, "--output", output,
+                "--mode", "watch", "--consolidate", "all.xlsx"));
+        assertEquals(PLToolsCli.EXIT_USAGE, run("--source", source, "--output"));
+    }
+
+    @Test
+    void fatalErrors() throws IOException {
+        String source = sourceDir().toString();
+        String output = dir.resolve("out").toString();
+        Path badTemplate = dir.resolve("template.xlsx");
+        Files.writeString(badTemplate, "not a workbook");
+
+        assertEquals(PLToolsCli.EXIT_FATAL, run("--source", dir.resolve("missing").toString(), "--output", output,
+                "--template", template()));
+        assertEquals(PLToolsCli.EXIT_FATAL, run("--source", source, "--output", output,
+                "--template", badTemplate.toString()));
+        assertEquals(PLToolsCli.EXIT_FATAL, run("--source", source, "--output", output,
+                "--template", template(), "--mapping", dir.resolve("missing.properties").toString()));
+        assertFalse(Files.exists(Path.of(output, RunMetrics.REPORT_FILE_NAME)));
+    }
+
+    private String template() throws IOException {
+        Path template = dir.resolve("good-template.xlsx");
+        return (Files.exists(template) ? template : TestWorkbooks.template(template)).toString();
+    }
+
+    private Path sourceDir() throws IOException {
+        return Files.createDirectories(dir.resolve("src"));
+    }
+
+    private static String report(Path output) throws IOException {
+        return Files.readString(output.resolve(RunMetrics.REPORT_FILE_NAME), StandardCharsets.UTF_8);
+    }
+
+    private static int run(String... args) {
+        PrintStream out = new PrintStream(new ByteArrayOutputStream(), true, StandardCharsets.UTF_8);
+        return PLToolsCli.run(args, out, out);
+    }
+}
@@ -0,0 +1,139 @@
+package com.sws4cloud.pltools;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * 托盘汇总与按文本分组的 HashMap 参照实现的对照，以及合并与编号转换
+ */
+class PalletAggregationTest {
+
+    private static final String[] DATES = {"2024-01-10", "2024-01-11", "2024-02-29", "待定", "", null};
+
+    @Test
+    void groupsMatchReference() {
+        StringDictionary dictionary = new StringDictionary();
+        List<DataRow> rows = randomRows(new Random(1), 3_000, dictionary);
+        PalletAggregation aggregation = PalletAggregation.of(rows, dictionary);
+
+        assertGroups(rows, aggregation, 0.0);
+        for (DataRow row : rows) {
+            long cases = rows.stream().filter(r -> r.idPallet.equals(row.idPallet)).mapToLong(r -> r.quantity).sum();
+            assertEquals(cases, aggregation.palletCases(row));
+        }
+    }
+
+    @Test
+    void mergeMatchesSinglePass() {
+        Random random = new Random(2);
+        StringDictionary first = new StringDictionary();
+        StringDictionary second = new StringDictionary();
+        List<DataRow> firstRows = randomRows(random, 1_500, first);
+        List<DataRow> secondRows = randomRows(random, 1_500, second);
+
+        PalletAggregation merged = PalletAggregation.of(firstRows, first);
+        int[] remap = merged.merge(PalletAggregation.of(secondRows, second));
+
+        // 转换后的编号指向合并后字典中的同一文本
+        for (DataRow row : secondRows) {
+            String pallet = row.idPallet;
+            String variety = row.variety;
+            String size = row.size;
+            row.remap(remap, first);
+            assertEquals(pallet, row.idPallet);
+            assertEquals(variety, row.variety);
+            assertEquals(size, row.size);
+            assertSame(first.valueOf(row.palletId), row.idPallet);
+        }
+
+        List<DataRow> all = new ArrayList<>(firstRows);
+        all.addAll(secondRows);
+        // 部分汇总相加改变了净重的加法顺序，只比较到舍入误差
+        assertGroups(all, merged, 1e-9);
+        for (DataRow row : all) {
+            long cases = all.stream().filter(r -> r.idPallet.equals(row.idPallet)).mapToLong(r -> r.quantity).sum();
+            assertEquals(cases, merged.palletCases(row));
+        }
+    }
+
+    private static List<DataRow> randomRows(Random random, int count, StringDictionary dictionary) {
+        List<DataRow> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            DataRow row = new DataRow();
+            row.idPallet = dictionary.intern("P" + random.nextInt(80));
+            row.variety = dictionary.intern("V" + random.nextInt(6));
+            row.size = dictionary.intern("S" + random.nextInt(5));
+            row.palletId = dictionary.idOf(row.idPallet);
+            row.varietyId = dictionary.idOf(row.variety);
+            row.sizeId = dictionary.idOf(row.size);
+            row.quantity = random.nextInt(60);
+            row.netWeight = random.nextInt(400) / 40.0;
+            row.setPackingDate(DATES[random.nextInt(DATES.length)]);
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static void assertGroups(List<DataRow> rows, PalletAggregation aggregation, double tolerance) {
+        assertSameGroups(reference(rows, row -> new String[]{row.idPallet}),
+                collect(aggregation::forEachPallet), tolerance);
+        assertSameGroups(reference(rows, row -> new String[]{row.idPallet, row.variety}),
+                collect(aggregation::forEachPalletVariety), tolerance);
+        assertSameGroups(reference(rows, row -> new String[]{row.idPallet, row.size}),
+                collect(aggregation::forEachPalletSize), tolerance);
+        assertSameGroups(reference(rows, row -> new String[]{dateText(row)}),
+                collect(aggregation::forEachPackingDate), tolerance);
+    }
+
+    private static String dateText(DataRow row) {
+        if (row.packingDay != DataRow.NO_DATE) {
+            return LocalDate.ofEpochDay(row.packingDay).toString();
+        }
+        return row.packingDateText != null ? row.packingDateText : "";
+    }
+
+    /**
+     * 参照实现：按分组文本累加箱数、净重和行数，保持第一次出现的顺序
+     */
+    private static Map<List<String>, double[]> reference(List<DataRow> rows, Function<DataRow, String[]> key) {
+        Map<List<String>, double[]> groups = new LinkedHashMap<>();
+        for (DataRow row : rows) {
+            double[] sums = groups.computeIfAbsent(Arrays.asList(key.apply(row)), k -> new double[3]);
+            sums[0] += row.quantity;
+            sums[1] += row.netWeight * row.quantity;
+            sums[2]++;
+        }
+        return groups;
+    }
+
+    private static Map<List<String>, double[]> collect(Consumer<PalletAggregation.GroupVisitor> forEach) {
+        Map<List<String>, double[]> groups = new LinkedHashMap<>();
+        forEach.accept((keys, cases, netKg, rows) -> groups.put(Arrays.asList(keys), new double[]{cases, netKg, rows}));
+        return groups;
+    }
+
+    private static void assertSameGroups(Map<List<String>, double[]> expected, Map<List<String>, double[]> actual,
+                                         double tolerance) {
+        assertArrayEquals(expected.keySet().toArray(), actual.keySet().toArray());
+        for (Map.Entry<List<String>, double[]> entry : expected.entrySet()) {
+            double[] sums = actual.get(entry.getKey());
+            assertEquals(entry.getValue()[0], sums[0], entry.getKey().toString());
+            assertEquals(entry.getValue()[1], sums[1],
+                    tolerance * Math.max(1.0, Math.abs(entry.getValue()[1])), entry.getKey().toString());
+            assertEquals(entry.getValue()[2], sums[2], entry.getKey().toString());
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.sws4cloud.pltools;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 流式（SAX）提取与完整工作簿（DOM）提取的结果对照
+ */
+class StreamingSheetReaderTest {
+
+    private static final int CAT = SourceField.CAT.defaultColumn();
+    private static final int CSP = SourceField.CSP.defaultColumn();
+    private static final int CSG = SourceField.CSG.defaultColumn();
+    private static final int LABEL = SourceField.LABEL.defaultColumn();
+    private static final int DATE = SourceField.PACKING_DATE.defaultColumn();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void sharedStringCellWithoutValueIsBlank() throws IOException {
+        TestWorkbooks book = new TestWorkbooks();
+        int label = book.shared("  BRAND  ");
+        book.dataRow(15, "P1", "<c r=\"" + TestWorkbooks.ref(CAT, 15) + "\" t=\"s\"/>")
+                .dataRow(16, "P1", "<c r=\"" + TestWorkbooks.ref(LABEL, 16) + "\" t=\"s\"><v>" + label + "</v></c>"
+                        + "<c r=\"" + TestWorkbooks.ref(CAT, 16) + "\" t=\"s\"/>");
+        assertParity(book.write(dir.resolve("shared.xlsx")), 2);
+    }
+
+    @Test
+    void emptyValuesInNumericAndFormulaCells() throws IOException {
+        TestWorkbooks book = new TestWorkbooks();
+        book.dataRow(15, "P1", "<c r=\"" + TestWorkbooks.ref(CSP, 15) + "\"><v></v></c>"
+                        + "<c r=\"" + TestWorkbooks.ref(CSG, 15) + "\"><f>1+1</f><v></v></c>"
+                        + "<c r=\"" + TestWorkbooks.ref(DATE, 15) + "\" s=\"1\"><v></v></c>")
+                .dataRow(16, "P2", "<c r=\"" + TestWorkbooks.ref(CSP, 16) + "\" t=\"n\"/>"
+                        + "<c r=\"" + TestWorkbooks.ref(CSG, 16) + "\"><f>1+1</f></c>");
+        assertParity(book.write(dir.resolve("empty.xlsx")), 2);
+    }
+
+    @Test
+    void typedCells() throws IOException {
+        TestWorkbooks book = new TestWorkbooks();
+        int cat = book.shared("CAT 1");
+        book.dataRow(15, "P1", "<c r=\"" + TestWorkbooks.ref(CAT, 15) + "\" t=\"s\"><v>" + cat + "</v></c>"
+                        + "<c r=\"" + TestWorkbooks.ref(CSP, 15) + "\"><v>12345</v></c>"
+                        + "<c r=\"" + TestWorkbooks.ref(CSG, 15) + "\"><v>9876.5</v></c>"
+                        + "<c r=\"" + TestWorkbooks.ref(DATE, 15) + "\" s=\"1\"><v>45300</v></c>")
+                .dataRow(16, "P1", "<c r=\"" + TestWorkbooks.ref(CAT, 16) + "\" t=\"b\"><v>1</v></c>"
+                        + "<c r=\"" + TestWorkbooks.ref(CSP, 16) + "\" t=\"str\"><f>\"A\"&amp;\"B\"</f><v>AB</v></c>"
+                        + "<c r=\"" + TestWorkbooks.ref(CSG, 16) + "\"><f>2*3</f><v>6</v></c>"
+                        + "<c r=\"" + TestWorkbooks.ref(DATE, 16) + "\" t=\"inlineStr\"><is><t>2024-01-10</t></is></c>")
+                .row(17, "")
+                .dataRow(18, "", "");
+        assertParity(book.write(dir.resolve("typed.xlsx")), 2);
+    }
+
+    /**
+     * 两种方式提取的数据行逐字段相同
+     */
+    private static void assertParity(Path file, int expectedRows) throws IOException {
+        List<DataRow> dom = ExcelDataExtractor.extractDataFromSourceWorkbook(file.toString());
+        List<DataRow> sax = new ArrayList<>();
+        ExcelDataExtractor.extractDataFromSource(file.toString(), sax::add);
+        assertEquals(expectedRows, dom.size());
+        assertEquals(describe(dom), describe(sax));
+    }
+
+    private static List<String> describe(List<DataRow> rows) {
+        List<String> result = new ArrayList<>();
+        for (DataRow row : rows) {
+            result.add(String.join("|", row.idPallet, row.label, row.variety, row.size,
+                    String.valueOf(row.netWeight), String.valueOf(row.quantity), row.csg, row.csp,
+                    String.valueOf(row.getPackingDateText()), row.cat, row.tempRecorder));
+        }
+        return result;
+    }
+}
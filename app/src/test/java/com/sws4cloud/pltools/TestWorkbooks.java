@@ -0,0 +1,142 @@
+package com.sws4cloud.pltools;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 测试用的最小 xlsx：直接写 sheet XML，可以构造 POI 不会生成的单元格（没有 v 的共享字符串等）。
+ * 第14行是内置布局的标题行，数据从第15行开始。样式 1 是日期格式。
+ */
+final class TestWorkbooks {
+
+    private final List<String> sharedStrings = new ArrayList<>();
+    private final StringBuilder rows = new StringBuilder();
+
+    TestWorkbooks() {
+        StringBuilder header = new StringBuilder();
+        for (SourceField field : SourceField.values()) {
+            header.append(inlineCell(field.defaultColumn(), 14, field.header()));
+        }
+        row(14, header.toString());
+    }
+
+    /**
+     * 共享字符串的索引
+     */
+    int shared(String text) {
+        sharedStrings.add(text);
+        return sharedStrings.size() - 1;
+    }
+
+    /**
+     * 追加一行（Excel 行号）
+     */
+    TestWorkbooks row(int excelRow, String cellsXml) {
+        rows.append("<row r=\"").append(excelRow).append("\">").append(cellsXml).append("</row>");
+        return this;
+    }
+
+    /**
+     * 一个数据行：各字段都有值，extra 追加在托盘号之前（用来放被测试的单元格）
+     */
+    TestWorkbooks dataRow(int excelRow, String pallet, String extra) {
+        return row(excelRow, extra
+                + inlineCell(SourceField.VARIETY.defaultColumn(), excelRow, "LAPINS")
+                + inlineCell(SourceField.SIZE.defaultColumn(), excelRow, "2J")
+                + numberCell(SourceField.QUANTITY.defaultColumn(), excelRow, "80")
+                + numberCell(SourceField.NET_WEIGHT.defaultColumn(), excelRow, "5")
+                + inlineCell(SourceField.ID_PALLET.defaultColumn(), excelRow, pallet));
+    }
+
+    static String ref(int col, int excelRow) {
+        return org.apache.poi.ss.util.CellReference.convertNumToColString(col) + excelRow;
+    }
+
+    static String inlineCell(int col, int excelRow, String text) {
+        return "<c r=\"" + ref(col, excelRow) + "\" t=\"inlineStr\"><is><t>" + text + "</t></is></c>";
+    }
+
+    static String numberCell(int col, int excelRow, String value) {
+        return "<c r=\"" + ref(col, excelRow) + "\"><v>" + value + "</v></c>";
+    }
+
+    Path write(Path file) throws IOException {
+        try (OutputStream out = Files.newOutputStream(file);
+             ZipOutputStream zip = new ZipOutputStream(out)) {
+            entry(zip, "[Content_Types].xml", "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+                    + "<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">"
+                    + "<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>"
+                    + "<Default Extension=\"xml\" ContentType=\"application/xml\"/>"
+                    + "<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>"
+                    + "<Override PartName=\"/xl/worksheets/sheet1.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>"
+                    + "<Override PartName=\"/xl/sharedStrings.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sharedStrings+xml\"/>"
+                    + "<Override PartName=\"/xl/styles.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.styles+xml\"/>"
+                    + "</Types>");
+            entry(zip, "_rels/.rels", "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+                    + "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+                    + "<Relationship Id=\"rId1\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument\" Target=\"xl/workbook.xml\"/>"
+                    + "</Relationships>");
+            entry(zip, "xl/workbook.xml", "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+                    + "<workbook xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\""
+                    + " xmlns:r=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships\">"
+                    + "<sheets><sheet name=\"Sheet1\" sheetId=\"1\" r:id=\"rId1\"/></sheets></workbook>");
+            entry(zip, "xl/_rels/workbook.xml.rels", "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+                    + "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+                    + "<Relationship Id=\"rId1\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet\" Target=\"worksheets/sheet1.xml\"/>"
+                    + "<Relationship Id=\"rId2\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/sharedStrings\" Target=\"sharedStrings.xml\"/>"
+                    + "<Relationship Id=\"rId3\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/styles\" Target=\"styles.xml\"/>"
+                    + "</Relationships>");
+            entry(zip, "xl/styles.xml", "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+                    + "<styleSheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">"
+                    + "<fonts count=\"1\"><font><sz val=\"11\"/><name val=\"Calibri\"/></font></fonts>"
+                    + "<fills count=\"1\"><fill><patternFill patternType=\"none\"/></fill></fills>"
+                    + "<borders count=\"1\"><border/></borders>"
+                    + "<cellStyleXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\"/></cellStyleXfs>"
+                    + "<cellXfs count=\"2\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\"/>"
+                    + "<xf numFmtId=\"14\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyNumberFormat=\"1\"/></cellXfs>"
+                    + "</styleSheet>");
+            StringBuilder sst = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+                    + "<sst xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\" count=\""
+                    + sharedStrings.size() + "\" uniqueCount=\"" + sharedStrings.size() + "\">");
+            for (String text : sharedStrings) {
+                sst.append("<si><t xml:space=\"preserve\">").append(text).append("</t></si>");
+            }
+            entry(zip, "xl/sharedStrings.xml", sst.append("</sst>").toString());
+            entry(zip, "xl/worksheets/sheet1.xml", "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+                    + "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">"
+                    + "<sheetData>" + rows + "</sheetData></worksheet>");
+        }
+        return file;
+    }
+
+    /**
+     * 最小模板：一个工作表，前14行是表头（仓库中没有随附内置模板）
+     */
+    static Path template(Path file) throws IOException {
+        try (XSSFWorkbook workbook = new XSSFWorkbook();
+             OutputStream out = Files.newOutputStream(file)) {
+            Sheet sheet = workbook.createSheet("PL");
+            for (int row = 0; row < 14; row++) {
+                sheet.createRow(row).createCell(0).setCellValue("H" + (row + 1));
+            }
+            workbook.write(out);
+        }
+        return file;
+    }
+
+    private static void entry(ZipOutputStream zip, String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+}
@@ -0,0 +1,75 @@
+package com.sws4cloud.pltools;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 托盘汇总：基本类型聚合表（PalletAggregation）与按托盘号文本分组的 HashMap 对照，
+ * 以及计算列的一次遍历。数据行在 setUp 中提取，只测量汇总本身。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class AggregationBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private StringDictionary dictionary;
+    private List<DataRow> dataList;
+    private PalletAggregation aggregation;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dictionary = new StringDictionary();
+        dataList = BenchmarkData.rows(rows, dictionary);
+        aggregation = PalletAggregation.of(dataList, dictionary);
+    }
+
+    /**
+     * 一次遍历累加托盘、托盘×品种、托盘×规格、装箱日期四个分组
+     */
+    @Benchmark
+    public PalletAggregation palletAggregation() {
+        return PalletAggregation.of(dataList, dictionary);
+    }
+
+    /**
+     * 对照：只按托盘号文本累加箱数（原先 calculatePalletTotals 的做法）
+     */
+    @Benchmark
+    public Map<String, Integer> hashMapPalletTotals() {
+        Map<String, Integer> totals = new HashMap<>();
+        for (DataRow row : dataList) {
+            totals.merge(row.idPallet, row.quantity, Integer::sum);
+        }
+        return totals;
+    }
+
+    /**
+     * TOTAL N.W、托盘总箱数、Pallets 列和汇总行
+     */
+    @Benchmark
+    public ComputedColumns computedColumns() {
+        return ComputedColumns.compute(dataList, aggregation::palletCases);
+    }
+}
@@ -0,0 +1,158 @@
+package com.sws4cloud.pltools;
+
+import com.sws4cloud.pltools.ExcelDataExtractor.LogCallback;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 基准测试用的模板和源文件生成器。
+ * <p>
+ * 源文件按 SRC_COL_* 的列布局生成，数据从 SOURCE_START_ROW 开始；
+ * 取值分布接近真实装箱单（约20行一个托盘，少量品种和规格，装箱日期为日期格式单元格）。
+ * 生成的文件放在临时目录中，同一行数只生成一次。
+ */
+final class BenchmarkData {
+
+    private static final String[] VARIETIES = {"LAPINS", "SANTINA", "REGINA", "KORDIA", "SWEETHEART"};
+    private static final String[] SIZES = {"J", "2J", "3J", "4J", "XL"};
+    private static final int ROWS_PER_PALLET = 20;
+
+    private static File directory;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * 输出模板：前14行为表头区域（第12行为汇总行），第15行为数据模板行
+     */
+    static synchronized File template() throws IOException {
+        File file = new File(directory(), "template.xlsx");
+        if (file.exists()) {
+            return file;
+        }
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet("PL");
+            for (int rowNum = 0; rowNum < ExcelDataExtractor.TARGET_START_ROW; rowNum++) {
+                sheet.createRow(rowNum).createCell(0).setCellValue("HEADER " + (rowNum + 1));
+            }
+            Row templateRow = sheet.createRow(ExcelDataExtractor.TARGET_START_ROW);
+            for (int col = 0; col < 15; col++) {
+                templateRow.createCell(col);
+            }
+            write(workbook, file);
+        }
+        return file;
+    }
+
+    /**
+     * 含 rows 个数据行的源文件
+     */
+    static synchronized File source(int rows) throws IOException {
+        File file = new File(directory(), "source-" + rows + ".xlsx");
+        if (file.exists()) {
+            return file;
+        }
+        // 流式写出，生成百万行源文件时不占用大量堆内存
+        SXSSFWorkbook workbook = new SXSSFWorkbook(500);
+        try {
+            Sheet sheet = workbook.createSheet("PACKING LIST");
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.createDataFormat().getFormat("dd/mm/yyyy"));
+
+            Row header = sheet.createRow(ExcelDataExtractor.SOURCE_START_ROW - 1);
+            for (SourceField field : SourceField.values()) {
+                header.createCell(field.defaultColumn()).setCellValue(field.header());
+            }
+
+            for (int i = 0; i < rows; i++) {
+                fillSourceRow(sheet.createRow(ExcelDataExtractor.SOURCE_START_ROW + i), i, dateStyle);
+            }
+            write(workbook, file);
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+        return file;
+    }
+
+    /**
+     * 含 rows 个数据行的提取结果（经正式的流式提取得到）
+     */
+    static List<DataRow> rows(int rows, StringDictionary dictionary) throws IOException {
+        List<DataRow> dataList = new ArrayList<>(rows);
+        ExcelDataExtractor.extractDataFromSource(source(rows).getPath(), dictionary, quietContext(), dataList::add);
+        return dataList;
+    }
+
+    /**
+     * 丢弃所有日志的上下文，避免日志输出影响测量
+     */
+    static JobContext quietContext() {
+        return new JobContext(new LogCallback() {
+            @Override
+            public void logMessage(String message) {
+            }
+
+            @Override
+            public void logError(String message) {
+            }
+        }, LogLevel.ERROR);
+    }
+
+    static File newOutputFile(String prefix) throws IOException {
+        File file = File.createTempFile(prefix, ".xlsx", directory());
+        file.deleteOnExit();
+        return file;
+    }
+
+    private static void fillSourceRow(Row row, int i, CellStyle dateStyle) {
+        row.createCell(ExcelDataExtractor.SRC_COL_VARIETY).setCellValue(VARIETIES[i % VARIETIES.length]);
+        row.createCell(ExcelDataExtractor.SRC_COL_LABEL).setCellValue("BRAND" + (i % 3));
+        row.createCell(ExcelDataExtractor.SRC_COL_CAT).setCellValue("CAT 1");
+        row.createCell(ExcelDataExtractor.SRC_COL_SIZE).setCellValue(SIZES[(i / 7) % SIZES.length]);
+        row.createCell(ExcelDataExtractor.SRC_COL_QUANTITY).setCellValue(60 + i % 40);
+        row.createCell(ExcelDataExtractor.SRC_COL_NET_WEIGHT).setCellValue(i % 4 == 0 ? 5 : 2.5);
+        row.createCell(ExcelDataExtractor.SRC_COL_CSP).setCellValue(12345);
+        row.createCell(ExcelDataExtractor.SRC_COL_CSG).setCellValue("9876");
+        Cell date = row.createCell(ExcelDataExtractor.SRC_COL_PACKING_DATE);
+        date.setCellValue(45300 + (i / 5000) % 30);
+        date.setCellStyle(dateStyle);
+        row.createCell(ExcelDataExtractor.SRC_COL_ID_PALLET).setCellValue("P" + (100000 + i / ROWS_PER_PALLET));
+        row.createCell(ExcelDataExtractor.SRC_COL_TEMP_RECORDER).setCellValue(i % ROWS_PER_PALLET == 0 ? "TR" + i : "");
+    }
+
+    private static File directory() throws IOException {
+        if (directory == null) {
+            String configured = System.getProperty("pltools.benchmarkDir");
+            directory = configured != null
+                    ? new File(configured)
+                    : new File(System.getProperty("java.io.tmpdir"), "pltools-benchmarks");
+            Files.createDirectories(directory.toPath());
+        }
+        return directory;
+    }
+
+    private static void write(Workbook workbook, File file) throws IOException {
+        // 先写临时文件再改名，中断的生成不会留下残缺文件
+        File partial = new File(file.getPath() + ".part");
+        try (OutputStream out = new FileOutputStream(partial)) {
+            workbook.write(out);
+        }
+        if (!partial.renameTo(file)) {
+            throw new IOException("无法生成文件: " + file);
+        }
+    }
+}
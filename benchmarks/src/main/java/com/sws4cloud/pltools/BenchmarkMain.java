@@ -0,0 +1,36 @@
+package com.sws4cloud.pltools;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 基准测试入口：接受 JMH 的全部命令行参数，并默认启用 GC profiler
+ * （报告 gc.alloc.rate 和 gc.alloc.rate.norm，即每次调用的分配字节数）。
+ * <p>
+ * 示例：java -jar target/benchmarks.jar CellDecoding
+ *       java -jar target/benchmarks.jar Extraction -p rows=1000,100000
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        if (commandLine.shouldHelp() || commandLine.shouldList() || commandLine.shouldListWithParams()
+                || commandLine.shouldListProfilers() || commandLine.shouldListResultFormats()) {
+            // 列表和帮助类参数交给 JMH 自己的入口处理
+            Main.main(args);
+            return;
+        }
+        Options options = new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
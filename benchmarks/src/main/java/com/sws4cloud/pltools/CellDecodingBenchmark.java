@@ -0,0 +1,127 @@
+package com.sws4cloud.pltools;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单元格解码（getCellValue）的微基准：字符串、数值、日期、公式四类单元格，以及空行判断。
+ * <p>
+ * typedRow 按提取时的方式把整行的投影列解码为 {@link RowValues} 并读取数量、净重和装箱日期的类型化值，
+ * 与逐个单元格取文本再解析的方式对照。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CellDecodingBenchmark {
+
+    private XSSFWorkbook workbook;
+    private Cell stringCell;
+    private Cell numericCell;
+    private Cell decimalCell;
+    private Cell dateCell;
+    private Cell formulaCell;
+    private Row dataRow;
+    private Row blankRow;
+    private final RowValues rowValues = new RowValues();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        workbook = new XSSFWorkbook();
+        Sheet sheet = workbook.createSheet("PACKING LIST");
+        CellStyle dateStyle = workbook.createCellStyle();
+        dateStyle.setDataFormat(workbook.createDataFormat().getFormat("dd/mm/yyyy"));
+
+        dataRow = sheet.createRow(0);
+        stringCell = dataRow.createCell(ExcelDataExtractor.SRC_COL_VARIETY);
+        stringCell.setCellValue(" LAPINS ");
+        numericCell = dataRow.createCell(ExcelDataExtractor.SRC_COL_QUANTITY);
+        numericCell.setCellValue(84);
+        decimalCell = dataRow.createCell(ExcelDataExtractor.SRC_COL_NET_WEIGHT);
+        decimalCell.setCellValue(2.505);
+        dateCell = dataRow.createCell(ExcelDataExtractor.SRC_COL_PACKING_DATE);
+        dateCell.setCellValue(45300);
+        dateCell.setCellStyle(dateStyle);
+        formulaCell = dataRow.createCell(ExcelDataExtractor.SRC_COL_CSG);
+        formulaCell.setCellFormula("20+4");
+        workbook.getCreationHelper().createFormulaEvaluator().evaluateFormulaCell(formulaCell);
+
+        // 只有空白单元格的行，isRowEmpty 需要检查到最后一列
+        blankRow = sheet.createRow(1);
+        for (int col = 0; col <= ExcelDataExtractor.SRC_COL_TEMP_RECORDER; col++) {
+            blankRow.createCell(col).setCellValue("");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        workbook.close();
+    }
+
+    @Benchmark
+    public String stringCell() {
+        return ExcelDataExtractor.getCellValue(stringCell);
+    }
+
+    @Benchmark
+    public String integerCell() {
+        return ExcelDataExtractor.getCellValue(numericCell);
+    }
+
+    @Benchmark
+    public String decimalCell() {
+        return ExcelDataExtractor.getCellValue(decimalCell);
+    }
+
+    @Benchmark
+    public String dateCell() {
+        return ExcelDataExtractor.getCellValue(dateCell);
+    }
+
+    @Benchmark
+    public String formulaCell() {
+        return ExcelDataExtractor.getCellValue(formulaCell);
+    }
+
+    @Benchmark
+    public double typedRow() {
+        rowValues.load(dataRow, SourceLayout.DEFAULT.columns());
+        double quantity = rowValues.isNumber(ExcelDataExtractor.SRC_COL_QUANTITY)
+                ? rowValues.number(ExcelDataExtractor.SRC_COL_QUANTITY) : 0;
+        double netWeight = rowValues.isNumber(ExcelDataExtractor.SRC_COL_NET_WEIGHT)
+                ? ExcelDataExtractor.roundNumericValue(rowValues.number(ExcelDataExtractor.SRC_COL_NET_WEIGHT)) : 0;
+        int packingDay = rowValues.isDate(ExcelDataExtractor.SRC_COL_PACKING_DATE)
+                ? rowValues.epochDay(ExcelDataExtractor.SRC_COL_PACKING_DATE) : 0;
+        return quantity * netWeight + packingDay;
+    }
+
+    @Benchmark
+    public boolean isRowEmptyData() {
+        return ExcelDataExtractor.isRowEmpty(dataRow);
+    }
+
+    @Benchmark
+    public boolean isRowEmptyBlank() {
+        return ExcelDataExtractor.isRowEmpty(blankRow);
+    }
+}
@@ -0,0 +1,77 @@
+package com.sws4cloud.pltools;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 整个工作表的提取：流式（SAX）提取与 DOM 提取对照。
+ * <p>
+ * 每次调用处理一个完整源文件，结果按调用耗时（毫秒）报告。
+ * DOM 提取需要把整个工作簿读入内存，百万行时会占用数 GB 堆内存，
+ * 因此只在 rows 不超过 100000 时执行。
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ExtractionBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private String sourcePath;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        sourcePath = BenchmarkData.source(rows).getPath();
+    }
+
+    /**
+     * 正式的流式提取路径（逐行交给 sink，不保留数据行）
+     */
+    @Benchmark
+    public void streaming(Blackhole blackhole) throws IOException {
+        ExcelDataExtractor.extractDataFromSource(sourcePath, new StringDictionary(),
+                BenchmarkData.quietContext(), blackhole::consume);
+    }
+
+    /**
+     * 流式提取并汇总，相当于 processFile 中写出之前的全部工作
+     */
+    @Benchmark
+    public ComputedColumns streamingAndCompute() throws IOException {
+        StringDictionary dictionary = new StringDictionary();
+        List<DataRow> dataList = BenchmarkData.rows(rows, dictionary);
+        PalletAggregation aggregation = PalletAggregation.of(dataList, dictionary);
+        return ComputedColumns.compute(dataList, aggregation::palletCases);
+    }
+
+    /**
+     * 基于完整工作簿的提取，作为流式提取的对照
+     */
+    @Benchmark
+    public List<DataRow> workbook() throws IOException {
+        if (rows > 100_000) {
+            // 百万行 DOM 提取会耗尽堆内存
+            return null;
+        }
+        return ExcelDataExtractor.extractDataFromSourceWorkbook(sourcePath);
+    }
+}
@@ -0,0 +1,372 @@
+package com.sws4cloud.pltools;
+
+import com.sws4cloud.pltools.ExcelDataExtractor.FileResult;
+import com.sws4cloud.pltools.ExcelDataExtractor.LogCallback;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 端到端吞吐量测试：用 {@link WorkloadGenerator} 生成一批合成装箱单，
+ * 然后多次运行完整的 executeDataExtraction 流程（与界面和命令行相同的入口），
+ * 报告每轮的文件/秒、行/秒、堆内存峰值和 GC 时间。
+ * <p>
+ * 用法：java -cp target/benchmarks.jar com.sws4cloud.pltools.ThroughputHarness --files 20 --rows 10000
+ */
+public final class ThroughputHarness {
+
+    private static final String USAGE = String.join("\n",
+            "用法: ThroughputHarness [选项]",
+            "",
+            "  --dir <目录>            工作目录（默认 <临时目录>/pltools-throughput）",
+            "  --files <n>            源文件数（默认10）",
+            "  --rows <n>             每个文件的数据行数（默认1000）",
+            "  --rows-per-pallet <n>  每个托盘的行数（默认20）",
+            "  --varieties <n>        品种数（默认5）",
+            "  --sizes <n>            规格数（默认5）",
+            "  --labels <n>           品牌数（默认3）",
+            "  --dates <n>            装箱日期数（默认10）",
+            "  --dirty <比例>          脏数据单元格比例（默认0.05）",
+            "  --seed <n>             随机种子（默认42）",
+            "  --reuse                源目录已有文件时不重新生成",
+            "  --parallelism <n>      并行处理的文件数（默认1）",
+            "  --write <方式>          dom（默认）、streaming 或 pipelined",
+            "  --computed <方式>       formulas（默认）或 values",
+            "  --consolidate <文件名>   合并输出到一个文件",
+            "  --warmup <n>           预热轮数（默认1）",
+            "  --iterations <n>       测量轮数（默认3）",
+            "  --json <文件>           把结果写成 JSON");
+
+    private final WorkloadGenerator generator = new WorkloadGenerator();
+    private final ExtractionOptions options = ExtractionOptions.defaults().setLogLevel(LogLevel.ERROR);
+    private File workDir = new File(System.getProperty("java.io.tmpdir"), "pltools-throughput");
+    private boolean reuse;
+    private int warmup = 1;
+    private int iterations = 3;
+    private File jsonFile;
+
+    private ThroughputHarness() {
+    }
+
+    /**
+     * 一轮运行的测量结果
+     */
+    private static final class Measurement {
+        long elapsedNanos;
+        int files;
+        int failedFiles;
+        long rows;
+        long peakHeapBytes;
+        long gcMillis;
+        long gcCount;
+        int errors;
+
+        double filesPerSecond() {
+            return files / seconds();
+        }
+
+        double rowsPerSecond() {
+            return rows / seconds();
+        }
+
+        private double seconds() {
+            return Math.max(1L, elapsedNanos) / 1e9;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        ThroughputHarness harness = new ThroughputHarness();
+        try {
+            if (!harness.parse(args)) {
+                System.out.println(USAGE);
+                return;
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("参数错误: " + e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+        harness.run();
+    }
+
+    private boolean parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if ("--help".equals(arg) || "-h".equals(arg)) {
+                return false;
+            }
+            if ("--reuse".equals(arg)) {
+                reuse = true;
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("缺少参数值: " + arg);
+            }
+            String value = args[++i];
+            switch (arg) {
+                case "--dir":
+                    workDir = new File(value);
+                    break;
+                case "--files":
+                    generator.setFiles(parseInt(value, arg));
+                    break;
+                case "--rows":
+                    generator.setRowsPerFile(parseInt(value, arg));
+                    break;
+                case "--rows-per-pallet":
+                    generator.setRowsPerPallet(parseInt(value, arg));
+                    break;
+                case "--varieties":
+                    generator.setVarieties(parseInt(value, arg));
+                    break;
+                case "--sizes":
+                    generator.setSizes(parseInt(value, arg));
+                    break;
+                case "--labels":
+                    generator.setLabels(parseInt(value, arg));
+                    break;
+                case "--dates":
+                    generator.setPackingDates(parseInt(value, arg));
+                    break;
+                case "--dirty":
+                    try {
+                        generator.setDirtyRatio(Double.parseDouble(value));
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("无效的 " + arg + " 值: " + value);
+                    }
+                    break;
+                case "--seed":
+                    generator.setSeed(parseInt(value, arg));
+                    break;
+                case "--parallelism":
+                    options.setParallelism(parseInt(value, arg));
+                    break;
+                case "--write":
+                    if (!"dom".equalsIgnoreCase(value) && !"streaming".equalsIgnoreCase(value)
+                            && !"pipelined".equalsIgnoreCase(value)) {
+                        throw new IllegalArgumentException("无效的写出方式: " + value);
+                    }
+                    options.setStreamingWrite(!"dom".equalsIgnoreCase(value));
+                    options.setPipelined("pipelined".equalsIgnoreCase(value));
+                    break;
+                case "--computed":
+                    options.setComputedColumnMode(ComputedColumnMode.parse(value, ComputedColumnMode.FORMULAS));
+                    break;
+                case "--consolidate":
+                    options.setConsolidatedOutput(value);
+                    break;
+                case "--warmup":
+                    warmup = Math.max(0, parseInt(value, arg));
+                    break;
+                case "--iterations":
+                    iterations = Math.max(1, parseInt(value, arg));
+                    break;
+                case "--json":
+                    jsonFile = new File(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("未知参数: " + arg);
+            }
+        }
+        return true;
+    }
+
+    private static int parseInt(String value, String arg) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(arg + " 必须是整数: " + value);
+        }
+    }
+
+    private void run() throws IOException {
+        File sourceDir = new File(workDir, "source");
+        File outputDir = new File(workDir, "output");
+        File[] existing = sourceDir.listFiles((dir, name) -> name.endsWith(".xlsx"));
+        if (reuse && existing != null && existing.length > 0) {
+            System.out.println("使用已有源文件: " + sourceDir + "（" + existing.length + " 个）");
+        } else {
+            deleteFiles(existing);
+            long start = System.nanoTime();
+            generator.generate(sourceDir);
+            System.out.printf(Locale.ROOT, "生成 %d 个文件 x %d 行: %s（%d ms）%n", generator.getFiles(),
+                    generator.getRowsPerFile(), sourceDir, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+        String templatePath = BenchmarkData.template().getPath();
+
+        System.out.printf(Locale.ROOT, "并行度 %d, 写出 %s, 计算列 %s%s%n", options.getParallelism(),
+                options.getWriteMode(),
+                options.getComputedColumnMode().name().toLowerCase(Locale.ROOT),
+                options.getConsolidatedOutput() != null ? ", 合并输出 " + options.getConsolidatedOutput() : "");
+        System.out.println("轮次        文件   失败        行数      文件/秒        行/秒   堆峰值(MB)  GC(ms)  GC次数  错误日志");
+
+        List<Measurement> measurements = new ArrayList<>();
+        for (int i = 0; i < warmup + iterations; i++) {
+            Measurement measurement = measure(templatePath, sourceDir, outputDir);
+            String label = i < warmup ? "预热 " + (i + 1) : "测量 " + (i - warmup + 1);
+            print(label, measurement);
+            if (i >= warmup) {
+                measurements.add(measurement);
+            }
+        }
+        print("平均", average(measurements));
+
+        if (jsonFile != null) {
+            writeJson(measurements);
+            System.out.println("结果已写入: " + jsonFile.getAbsolutePath());
+        }
+    }
+
+    /**
+     * 运行一轮完整的提取流程，记录耗时、行数、堆内存峰值和 GC 增量
+     */
+    private Measurement measure(String templatePath, File sourceDir, File outputDir) {
+        // 每轮从干净的输出目录开始，避免覆盖写出与首次写出的差异
+        deleteFiles(outputDir.listFiles());
+        System.gc();
+
+        List<MemoryPoolMXBean> heapPools = new ArrayList<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+                heapPools.add(pool);
+            }
+        }
+        long gcMillisBefore = gcMillis();
+        long gcCountBefore = gcCount();
+
+        AtomicInteger errors = new AtomicInteger();
+        LogCallback log = new LogCallback() {
+            @Override
+            public void logMessage(String message) {
+            }
+
+            @Override
+            public void logError(String message) {
+                errors.incrementAndGet();
+            }
+        };
+
+        long start = System.nanoTime();
+        List<FileResult> results = ExcelDataExtractor.executeDataExtraction(templatePath, sourceDir.getPath(),
+                outputDir.getPath(), options, log);
+        Measurement measurement = new Measurement();
+        measurement.elapsedNanos = System.nanoTime() - start;
+
+        for (FileResult result : results) {
+            measurement.files++;
+            if (result.isSuccess()) {
+                measurement.rows += result.getRowCount();
+            } else {
+                measurement.failedFiles++;
+            }
+        }
+        // 各堆内存池的峰值之和（各池峰值不一定同时出现，是峰值的上界）
+        for (MemoryPoolMXBean pool : heapPools) {
+            measurement.peakHeapBytes += pool.getPeakUsage().getUsed();
+        }
+        measurement.gcMillis = gcMillis() - gcMillisBefore;
+        measurement.gcCount = gcCount() - gcCountBefore;
+        measurement.errors = errors.get();
+        return measurement;
+    }
+
+    private static long gcMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionTime());
+        }
+        return total;
+    }
+
+    private static long gcCount() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionCount());
+        }
+        return total;
+    }
+
+    private static Measurement average(List<Measurement> measurements) {
+        Measurement average = new Measurement();
+        for (Measurement m : measurements) {
+            average.elapsedNanos += m.elapsedNanos;
+            average.files += m.files;
+            average.failedFiles += m.failedFiles;
+            average.rows += m.rows;
+            average.peakHeapBytes = Math.max(average.peakHeapBytes, m.peakHeapBytes);
+            average.gcMillis += m.gcMillis;
+            average.gcCount += m.gcCount;
+            average.errors += m.errors;
+        }
+        int n = measurements.size();
+        average.elapsedNanos /= n;
+        average.files /= n;
+        average.failedFiles /= n;
+        average.rows /= n;
+        average.gcMillis /= n;
+        average.gcCount /= n;
+        average.errors /= n;
+        return average;
+    }
+
+    private static void print(String label, Measurement m) {
+        System.out.printf(Locale.ROOT, "%-8s %6d %6d %11d %12.1f %12.0f %12.1f %7d %7d %9d%n",
+                label, m.files, m.failedFiles, m.rows, m.filesPerSecond(), m.rowsPerSecond(),
+                m.peakHeapBytes / (1024.0 * 1024.0), m.gcMillis, m.gcCount, m.errors);
+    }
+
+    private void writeJson(List<Measurement> measurements) throws IOException {
+        File parent = jsonFile.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        try (JsonWriter json = new JsonWriter(Files.newBufferedWriter(jsonFile.toPath(), StandardCharsets.UTF_8))) {
+            json.beginObject()
+                    .name("files").value(generator.getFiles())
+                    .name("rowsPerFile").value(generator.getRowsPerFile())
+                    .name("parallelism").value(options.getParallelism())
+                    .name("writeMode").value(options.getWriteMode())
+                    .name("computedColumns").value(options.getComputedColumnMode().name().toLowerCase(Locale.ROOT))
+                    .name("consolidatedOutput").value(options.getConsolidatedOutput())
+                    .name("iterations").beginArray();
+            for (Measurement m : measurements) {
+                json.beginObject()
+                        .name("elapsedMillis").value(TimeUnit.NANOSECONDS.toMillis(m.elapsedNanos))
+                        .name("files").value(m.files)
+                        .name("failedFiles").value(m.failedFiles)
+                        .name("rows").value(m.rows)
+                        .name("filesPerSecond").value(m.filesPerSecond())
+                        .name("rowsPerSecond").value(m.rowsPerSecond())
+                        .name("peakHeapBytes").value(m.peakHeapBytes)
+                        .name("gcMillis").value(m.gcMillis)
+                        .name("gcCount").value(m.gcCount)
+                        .name("errorLogs").value(m.errors)
+                        .endObject();
+            }
+            json.endArray().endObject();
+        }
+    }
+
+    private static void deleteFiles(File[] files) {
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            if (file.isFile()) {
+                file.delete();
+            }
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.sws4cloud.pltools;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * 合成装箱单生成器：按源文件的实际列布局（SRC_COL_*，数据从 SOURCE_START_ROW 开始）
+ * 生成 N 个各含 M 个数据行的源文件，用于压力测试。
+ * <p>
+ * 托盘、品种、规格、品牌、装箱日期的取值个数可以配置。按 dirtyRatio 的比例混入真实文件中常见的脏数据：
+ * 带千分位的数量文本（"1,234"）、逗号小数的净重（"2,5"）、公式单元格、文本日期、
+ * 带 ".00" 的 CSG、没有托盘号的行和整行空白。同样的参数和种子总是生成同样的文件。
+ */
+final class WorkloadGenerator {
+
+    // 数据行之后的列（模拟源文件中不提取的备注列）
+    private static final int COL_REMARK = ExcelDataExtractor.SRC_COL_TEMP_RECORDER + 2;
+    private static final LocalDate FIRST_PACKING_DATE = LocalDate.of(2024, 1, 2);
+    private static final String[] VARIETY_NAMES = {"LAPINS", "SANTINA", "REGINA", "KORDIA", "SWEETHEART",
+            "SKEENA", "BING", "ROYAL DAWN", "STACCATO", "SYMPHONY"};
+    private static final String[] SIZE_NAMES = {"J", "XL", "2J", "3J", "4J", "5J", "L", "M"};
+
+    private int files = 10;
+    private int rowsPerFile = 1000;
+    private int rowsPerPallet = 20;
+    private int varieties = 5;
+    private int sizes = 5;
+    private int labels = 3;
+    private int packingDates = 10;
+    private double dirtyRatio = 0.05;
+    private long seed = 42L;
+
+    /**
+     * 生成的文件数
+     */
+    WorkloadGenerator setFiles(int files) {
+        this.files = Math.max(1, files);
+        return this;
+    }
+
+    /**
+     * 每个文件的数据行数（含空白行和没有托盘号的行）
+     */
+    WorkloadGenerator setRowsPerFile(int rowsPerFile) {
+        this.rowsPerFile = Math.max(1, rowsPerFile);
+        return this;
+    }
+
+    /**
+     * 每个托盘的行数，决定每个文件的托盘数
+     */
+    WorkloadGenerator setRowsPerPallet(int rowsPerPallet) {
+        this.rowsPerPallet = Math.max(1, rowsPerPallet);
+        return this;
+    }
+
+    WorkloadGenerator setVarieties(int varieties) {
+        this.varieties = Math.max(1, varieties);
+        return this;
+    }
+
+    WorkloadGenerator setSizes(int sizes) {
+        this.sizes = Math.max(1, sizes);
+        return this;
+    }
+
+    WorkloadGenerator setLabels(int labels) {
+        this.labels = Math.max(1, labels);
+        return this;
+    }
+
+    WorkloadGenerator setPackingDates(int packingDates) {
+        this.packingDates = Math.max(1, packingDates);
+        return this;
+    }
+
+    /**
+     * 脏数据单元格的比例（0 到 1）
+     */
+    WorkloadGenerator setDirtyRatio(double dirtyRatio) {
+        this.dirtyRatio = Math.min(1.0, Math.max(0.0, dirtyRatio));
+        return this;
+    }
+
+    WorkloadGenerator setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    int getFiles() {
+        return files;
+    }
+
+    int getRowsPerFile() {
+        return rowsPerFile;
+    }
+
+    /**
+     * 在 directory 中生成 packing-list-0001.xlsx 等源文件
+     */
+    void generate(File directory) throws IOException {
+        Files.createDirectories(directory.toPath());
+        for (int fileIndex = 0; fileIndex < files; fileIndex++) {
+            File file = new File(directory, String.format("packing-list-%04d.xlsx", fileIndex + 1));
+            writeFile(file, fileIndex);
+        }
+    }
+
+    private void writeFile(File file, int fileIndex) throws IOException {
+        // 每个文件使用独立的随机序列，与生成顺序无关
+        Random random = new Random(seed * 31 + fileIndex);
+        SXSSFWorkbook workbook = new SXSSFWorkbook(500);
+        try {
+            Sheet sheet = workbook.createSheet("PACKING LIST");
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.createDataFormat().getFormat("dd/mm/yyyy"));
+
+            writeHeader(sheet);
+            for (int i = 0; i < rowsPerFile; i++) {
+                Row row = sheet.createRow(ExcelDataExtractor.SOURCE_START_ROW + i);
+                if (isDirty(random)) {
+                    // 整行空白或没有托盘号的行（提取时跳过）
+                    if (random.nextBoolean()) {
+                        row.createCell(ExcelDataExtractor.SRC_COL_VARIETY).setCellValue("");
+                    } else {
+                        fillRow(row, fileIndex, i, random, dateStyle);
+                        row.getCell(ExcelDataExtractor.SRC_COL_ID_PALLET).setCellValue(" ");
+                    }
+                    continue;
+                }
+                fillRow(row, fileIndex, i, random, dateStyle);
+            }
+
+            try (OutputStream out = new FileOutputStream(file)) {
+                workbook.write(out);
+            }
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    private static void writeHeader(Sheet sheet) {
+        Row header = sheet.createRow(ExcelDataExtractor.SOURCE_START_ROW - 1);
+        header.createCell(ExcelDataExtractor.SRC_COL_VARIETY).setCellValue("VARIETY");
+        header.createCell(ExcelDataExtractor.SRC_COL_LABEL).setCellValue("LABEL");
+        header.createCell(ExcelDataExtractor.SRC_COL_CAT).setCellValue("CAT");
+        header.createCell(ExcelDataExtractor.SRC_COL_SIZE).setCellValue("SIZE");
+        header.createCell(ExcelDataExtractor.SRC_COL_QUANTITY).setCellValue("QUANTITY OF TRAYS");
+        header.createCell(ExcelDataExtractor.SRC_COL_NET_WEIGHT).setCellValue("NET WEIGHT");
+        header.createCell(ExcelDataExtractor.SRC_COL_CSP).setCellValue("CSP");
+        header.createCell(ExcelDataExtractor.SRC_COL_CSG).setCellValue("CSG");
+        header.createCell(ExcelDataExtractor.SRC_COL_PACKING_DATE).setCellValue("PACKING DATE");
+        header.createCell(ExcelDataExtractor.SRC_COL_ID_PALLET).setCellValue("ID PALLET");
+        header.createCell(ExcelDataExtractor.SRC_COL_TEMP_RECORDER).setCellValue("TEMPERATURE RECORDER");
+    }
+
+    private void fillRow(Row row, int fileIndex, int i, Random random, CellStyle dateStyle) {
+        int pallet = i / rowsPerPallet;
+
+        row.createCell(ExcelDataExtractor.SRC_COL_VARIETY).setCellValue(varietyName(random.nextInt(varieties)));
+        row.createCell(ExcelDataExtractor.SRC_COL_LABEL).setCellValue("BRAND " + (random.nextInt(labels) + 1));
+        row.createCell(ExcelDataExtractor.SRC_COL_CAT).setCellValue(random.nextInt(10) == 0 ? "CAT 2" : "CAT 1");
+        row.createCell(ExcelDataExtractor.SRC_COL_SIZE).setCellValue(sizeName(random.nextInt(sizes)));
+
+        int quantity = 40 + random.nextInt(60);
+        Cell quantityCell = row.createCell(ExcelDataExtractor.SRC_COL_QUANTITY);
+        if (isDirty(random)) {
+            if (random.nextBoolean()) {
+                // 带千分位的文本
+                quantity += 1000;
+                quantityCell.setCellValue(String.format(Locale.ROOT, "%,d", quantity));
+            } else {
+                // 公式单元格（带缓存值）
+                quantityCell.setCellFormula((quantity - 20) + "+20");
+                quantityCell.setCellValue(quantity);
+            }
+        } else {
+            quantityCell.setCellValue(quantity);
+        }
+
+        double netWeight = random.nextInt(4) == 0 ? 5.0 : 2.5;
+        Cell weightCell = row.createCell(ExcelDataExtractor.SRC_COL_NET_WEIGHT);
+        if (isDirty(random)) {
+            // 逗号小数
+            weightCell.setCellValue(String.valueOf(netWeight).replace('.', ','));
+        } else {
+            weightCell.setCellValue(netWeight);
+        }
+
+        row.createCell(ExcelDataExtractor.SRC_COL_CSP).setCellValue(10000 + fileIndex);
+        row.createCell(ExcelDataExtractor.SRC_COL_CSG).setCellValue(isDirty(random) ? "98760.00" : "98760");
+
+        LocalDate packingDate = FIRST_PACKING_DATE.plusDays(random.nextInt(packingDates));
+        Cell dateCell = row.createCell(ExcelDataExtractor.SRC_COL_PACKING_DATE);
+        if (isDirty(random)) {
+            // 文本日期
+            dateCell.setCellValue(packingDate.toString());
+        } else {
+            dateCell.setCellValue(packingDate);
+            dateCell.setCellStyle(dateStyle);
+        }
+
+        row.createCell(ExcelDataExtractor.SRC_COL_ID_PALLET)
+                .setCellValue(String.format("P%02d%06d", fileIndex % 100, pallet));
+        // 每个托盘的第一行带温度记录仪编号
+        row.createCell(ExcelDataExtractor.SRC_COL_TEMP_RECORDER)
+                .setCellValue(i % rowsPerPallet == 0 ? "TR" + (100000 + pallet) : "");
+        row.createCell(COL_REMARK).setCellValue("");
+    }
+
+    private boolean isDirty(Random random) {
+        return dirtyRatio > 0 && random.nextDouble() < dirtyRatio;
+    }
+
+    private static String varietyName(int index) {
+        return index < VARIETY_NAMES.length ? VARIETY_NAMES[index] : "VARIETY " + index;
+    }
+
+    private static String sizeName(int index) {
+        return index < SIZE_NAMES.length ? SIZE_NAMES[index] : (index - SIZE_NAMES.length + 6) + "J";
+    }
+}
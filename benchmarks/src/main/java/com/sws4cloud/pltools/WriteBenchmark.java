@@ -0,0 +1,73 @@
+package com.sws4cloud.pltools;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 模板写出：XSSF（DOM）写出与 SXSSF 流式写出对照，计算列分别以公式和数值写出。
+ * <p>
+ * 每次调用写出一个完整的输出文件，结果按调用耗时（毫秒）报告。
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class WriteBenchmark {
+
+    @Param({"1000", "100000"})
+    public int rows;
+
+    @Param({"FORMULAS", "VALUES"})
+    public ComputedColumnMode mode;
+
+    private String templatePath;
+    private List<DataRow> dataList;
+    private ComputedColumns computed;
+    private File outputFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        StringDictionary dictionary = new StringDictionary();
+        templatePath = BenchmarkData.template().getPath();
+        dataList = BenchmarkData.rows(rows, dictionary);
+        PalletAggregation aggregation = PalletAggregation.of(dataList, dictionary);
+        computed = ComputedColumns.compute(dataList, aggregation::palletCases);
+        outputFile = BenchmarkData.newOutputFile("write-");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        outputFile.delete();
+    }
+
+    @Benchmark
+    public void workbook() throws IOException {
+        ExcelDataExtractor.writeDataToTemplate(dataList, computed, null, templatePath, outputFile.getPath(),
+                TargetLayout.DEFAULT, mode, BenchmarkData.quietContext());
+    }
+
+    @Benchmark
+    public void streaming() throws IOException {
+        ExcelDataExtractor.writeDataToTemplateStreaming(dataList, computed, null, templatePath,
+                outputFile.getPath(), ExtractionOptions.DEFAULT_ROW_WINDOW, TargetLayout.DEFAULT, mode,
+                BenchmarkData.quietContext());
+    }
+}
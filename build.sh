@@ -16,7 +16,7 @@ fi
 mkdir -p dist/windows dist/macos
 
 # 3. 获取主JAR文件
-JAR_FILE=$(ls target/*.jar | grep -v sources | grep -v javadoc | head -n 1)
+JAR_FILE=$(ls app/target/*.jar | grep -v sources | grep -v javadoc | head -n 1)
 if [ -z "$JAR_FILE" ]; then
     echo "未找到主JAR文件"
     exit 1
@@ -27,7 +27,7 @@ echo "找到主JAR文件: $JAR_NAME"
 
 # 4. Windows打包
 echo "开始Windows打包..."
-jpackage --input target/ \
+jpackage --input app/target/ \
   --name PLTools \
   --app-version 1.0 \
   --main-class com.sws4cloud.pltools.PLToolsApplication \
@@ -39,7 +39,7 @@ jpackage --input target/ \
 
 # 5. macOS打包
 echo "开始macOS打包..."
-jpackage --input target/ \
+jpackage --input app/target/ \
   --name PLTools \
   --app-version 1.0 \
   --main-class com.sws4cloud.pltools.PLToolsApplication \
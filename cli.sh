@@ -0,0 +1,4 @@
+#!/bin/bash
+# 无界面批处理入口，参数说明见 --help
+DIR="$( cd "$( dirname "${BASH_SOURCE[0]}" )" && pwd )"
+java -cp "$DIR/*:$DIR/libs/*" com.sws4cloud.pltools.PLToolsCli "$@"